@@ -0,0 +1,188 @@
+package dev.nokee.publishing.multiplatform;
+
+import dev.gradleplugins.runnerkit.BuildResult;
+import dev.gradleplugins.runnerkit.GradleExecutor;
+import dev.gradleplugins.runnerkit.GradleRunner;
+import dev.nokee.commons.sources.GradleBuildElement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static dev.gradleplugins.buildscript.syntax.Syntax.groovyDsl;
+
+/**
+ * Measures how configuration time and heap grow with the number of platform publications.
+ * Each scenario generates a project with N platform publications, Maven or Ivy, and runs it through TestKit.
+ * The generated build reports its configuration time (from settings evaluation until the task graph is ready)
+ * and the heap used after a full GC once the task graph is ready, i.e. an approximation of the retained heap.
+ * The median of the measured iterations is written to {@literal build/reports/configuration-benchmark/results.json}.
+ */
+class ConfigurationScalingBenchmark {
+	private static final List<Integer> PLATFORM_COUNTS = Arrays.asList(1, 10, 100, 1000);
+	private static final int WARMUP_ITERATIONS = 2;
+	private static final int MEASURED_ITERATIONS = 5;
+	private static final Pattern RESULT_PATTERN = Pattern.compile("CONFIGURATION_BENCHMARK configurationTimeMillis=(\\d+) usedHeapBytes=(\\d+)");
+	@TempDir Path testDirectory;
+
+	@Test
+	void measuresConfigurationScaling(TestReporter reporter) throws IOException {
+		List<String> results = new ArrayList<>();
+		for (PublicationType type : PublicationType.values()) {
+			for (int platformCount : PLATFORM_COUNTS) {
+				// configuration paid by every build and configuration of the whole publishing graph
+				results.add(measure(type, platformCount, "help", false));
+				results.add(measure(type, platformCount, "publish", true));
+			}
+		}
+
+		Path outputFile = Paths.get(System.getProperty("dev.nokee.benchmark.outputDirectory", "build/reports/configuration-benchmark")).resolve("results.json");
+		Files.createDirectories(outputFile.getParent());
+		Files.write(outputFile, ("[\n" + String.join(",\n", results) + "\n]\n").getBytes(StandardCharsets.UTF_8));
+		reporter.publishEntry("results", outputFile.toAbsolutePath().toString());
+	}
+
+	private String measure(PublicationType type, int platformCount, String task, boolean dryRun) throws IOException {
+		GradleBuildElement build = generateBuild(testDirectory.resolve(type.name().toLowerCase(Locale.ROOT) + "-" + platformCount + "-" + task), type, platformCount);
+		GradleRunner runner = GradleRunner.create(GradleExecutor.gradleTestKit()).inDirectory(build.getLocation().toFile()).withPluginClasspath().withTasks(task);
+		if (dryRun) {
+			runner = runner.withArgument("--dry-run");
+		}
+
+		List<Long> configurationTimes = new ArrayList<>();
+		List<Long> usedHeaps = new ArrayList<>();
+		for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; ++i) {
+			BuildResult result = runner.build();
+			if (i >= WARMUP_ITERATIONS) {
+				Matcher matcher = RESULT_PATTERN.matcher(result.getOutput());
+				if (!matcher.find()) {
+					throw new IllegalStateException("No benchmark result in build output.");
+				}
+				configurationTimes.add(Long.parseLong(matcher.group(1)));
+				usedHeaps.add(Long.parseLong(matcher.group(2)));
+			}
+		}
+
+		return String.format("  {\"publicationType\": \"%s\", \"platformCount\": %d, \"task\": \"%s\", \"dryRun\": %b, \"iterations\": %d, \"configurationTimeMillis\": %d, \"usedHeapBytes\": %d}",
+			type.name().toLowerCase(Locale.ROOT), platformCount, task, dryRun, MEASURED_ITERATIONS, median(configurationTimes), median(usedHeaps));
+	}
+
+	private static long median(List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+
+	private static GradleBuildElement generateBuild(Path location, PublicationType type, int platformCount) {
+		GradleBuildElement build = GradleBuildElement.inDirectory(location);
+		build.getSettingsFile().append(groovyDsl("""
+			rootProject.name = 'test-project'
+			gradle.ext.configurationStart = System.nanoTime()
+		"""));
+		build.getBuildFile().plugins(it -> {
+			it.id("dev.nokee.multiplatform-publishing");
+			it.id(type.pluginId);
+		});
+		build.getBuildFile().append(groovyDsl("""
+			import org.gradle.api.attributes.Usage
+			import org.gradle.api.component.SoftwareComponentFactory
+			import org.gradle.api.publish.ivy.IvyPublication
+			import org.gradle.api.publish.maven.MavenPublication
+
+			import javax.inject.Inject
+			abstract class SoftwareComponentFactoryProvider {
+				private final SoftwareComponentFactory service
+
+				@Inject
+				SoftwareComponentFactoryProvider(SoftwareComponentFactory service) {
+					this.service = service
+				}
+
+				SoftwareComponentFactory get() { service }
+			}
+
+			def factory = objects.newInstance(SoftwareComponentFactoryProvider).get()
+			def platformCount = %d
+
+			def cpp = factory.adhoc('cpp')
+			components.add(cpp)
+			cpp.addVariantsFromConfiguration(configurations.consumable("cppApiElements") {
+				attributes {
+					attribute(Usage.USAGE_ATTRIBUTE, objects.named(Usage, Usage.C_PLUS_PLUS_API))
+				}
+				outgoing {
+					artifact(file('cpp-api-headers.zip'))
+				}
+			}.get()) {}
+			(1..platformCount).each { i ->
+				def platform = factory.adhoc("cppPlatform${i}")
+				components.add(platform)
+				platform.addVariantsFromConfiguration(configurations.consumable("platform${i}LinkElements") {
+					attributes {
+						attribute(Usage.USAGE_ATTRIBUTE, objects.named(Usage, Usage.NATIVE_LINK))
+					}
+					outgoing {
+						artifact(file('libfoo.so'))
+					}
+				}.get()) {}
+			}
+
+			publishing {
+				publications(forMultiplatform('cpp', %s) {
+					bridgePublication {
+						from components.cpp
+						%s = 'com.example'
+						%s = '1.0'
+					}
+					(1..platformCount).each { i ->
+						platformPublications.register("platform${i}") { from components."cppPlatform${i}" }
+					}
+				})
+				repositories {
+					%s { url 'repo' }
+				}
+			}
+
+			gradle.taskGraph.whenReady {
+				long configurationTime = (System.nanoTime() - gradle.configurationStart) / 1000000L
+				System.gc()
+				Runtime runtime = Runtime.getRuntime()
+				println "CONFIGURATION_BENCHMARK configurationTimeMillis=${configurationTime} usedHeapBytes=${runtime.totalMemory() - runtime.freeMemory()}"
+			}
+		""".formatted(platformCount, type.publicationType, type.groupProperty, type.versionProperty, type.repositoryType)));
+		build.file("cpp-api-headers.zip");
+		build.file("libfoo.so");
+		return build;
+	}
+
+	private enum PublicationType {
+		MAVEN("maven-publish", "MavenPublication", "groupId", "version", "maven"),
+		IVY("ivy-publish", "IvyPublication", "organisation", "revision", "ivy");
+
+		private final String pluginId;
+		private final String publicationType;
+		private final String groupProperty;
+		private final String versionProperty;
+		private final String repositoryType;
+
+		PublicationType(String pluginId, String publicationType, String groupProperty, String versionProperty, String repositoryType) {
+			this.pluginId = pluginId;
+			this.publicationType = publicationType;
+			this.groupProperty = groupProperty;
+			this.versionProperty = versionProperty;
+			this.repositoryType = repositoryType;
+		}
+	}
+}
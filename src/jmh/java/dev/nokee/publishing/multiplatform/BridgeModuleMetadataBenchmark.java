@@ -0,0 +1,97 @@
+package dev.nokee.publishing.multiplatform;
+
+import groovy.json.JsonSlurper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the bridge module metadata generation executed by each bridge publish task.
+ * The platform count matches the number of remote variants merged into the bridge module.
+ */
+@State(Scope.Benchmark)
+public class BridgeModuleMetadataBenchmark {
+	@Param({"1", "10", "100", "1000"})
+	public int variantCount;
+
+	private String bridgeModule;
+	private final List<String> platformModules = new ArrayList<>();
+	private Object mergedModule;
+
+	@Setup
+	public void setup() throws IOException {
+		bridgeModule = module("my-lib", "cppApiElements", "cplusplus-api", false);
+		BridgeModuleMetadataMerger merger = new BridgeModuleMetadataMerger(bridgeModule);
+		for (int i = 0; i < variantCount; ++i) {
+			String platformModule = module("my-lib_platform" + i, "platform" + i + "LinkElements", "native-link", true);
+			platformModules.add(platformModule);
+			merger.addRemoteVariants("com.example", "my-lib_platform" + i, "1.0", platformModule);
+		}
+
+		StringWriter out = new StringWriter();
+		merger.writeTo(out);
+		mergedModule = new JsonSlurper().parseText(out.toString());
+	}
+
+	@Benchmark
+	public String mergeRemoteVariants() throws IOException {
+		BridgeModuleMetadataMerger merger = new BridgeModuleMetadataMerger(bridgeModule);
+		for (int i = 0; i < variantCount; ++i) {
+			merger.addRemoteVariants("com.example", "my-lib_platform" + i, "1.0", platformModules.get(i));
+		}
+		StringWriter out = new StringWriter();
+		merger.writeTo(out);
+		return out.toString();
+	}
+
+	@Benchmark
+	public String writeMergedModule() throws IOException {
+		StringWriter out = new StringWriter();
+		try (JsonWriter writer = new JsonWriter(out)) {
+			writer.value(mergedModule);
+		}
+		return out.toString();
+	}
+
+	private static String module(String module, String variantName, String usage, boolean withFiles) {
+		StringBuilder result = new StringBuilder();
+		result.append("{\n");
+		result.append("  \"formatVersion\": \"1.1\",\n");
+		result.append("  \"component\": {\n");
+		result.append("    \"group\": \"com.example\",\n");
+		result.append("    \"module\": \"").append(module).append("\",\n");
+		result.append("    \"version\": \"1.0\",\n");
+		result.append("    \"attributes\": {\n");
+		result.append("      \"org.gradle.status\": \"release\"\n");
+		result.append("    }\n");
+		result.append("  },\n");
+		result.append("  \"variants\": [\n");
+		result.append("    {\n");
+		result.append("      \"name\": \"").append(variantName).append("\",\n");
+		result.append("      \"attributes\": {\n");
+		result.append("        \"org.gradle.usage\": \"").append(usage).append("\"\n");
+		result.append("      }");
+		if (withFiles) {
+			result.append(",\n");
+			result.append("      \"files\": [\n");
+			result.append("        {\n");
+			result.append("          \"name\": \"libfoo.so\",\n");
+			result.append("          \"url\": \"").append(module).append("-1.0.so\",\n");
+			result.append("          \"size\": 4096,\n");
+			result.append("          \"sha1\": \"da39a3ee5e6b4b0d3255bfef95601890afd80709\"\n");
+			result.append("        }\n");
+			result.append("      ]");
+		}
+		result.append("\n    }\n");
+		result.append("  ]\n");
+		result.append("}\n");
+		return result.toString();
+	}
+}
@@ -57,8 +57,8 @@ abstract class AbstractMultiplatformPublication<T extends Publication> implement
 		private final NamedDomainObjectRegistry<PublicationType> registry;
 
 		@Inject
-		public PlatformPublicationsContainer(Class<PublicationType> publicationType, Names names, NamedDomainObjectRegistry<PublicationType> registry, NamedDomainObjectCollection<PublicationType> collection, ProviderFactory providers, ObjectFactory objects) {
-			super(publicationType, Publication::getName, collection, objects.newInstance(Finalizer.class), providers, objects);
+		public PlatformPublicationsContainer(Class<PublicationType> publicationType, Names names, NamedDomainObjectRegistry<PublicationType> registry, NamedDomainObjectCollection<PublicationType> collection, NamedElementsDispatcher<PublicationType> dispatcher, ProviderFactory providers, ObjectFactory objects) {
+			super(publicationType, collection, dispatcher, objects.newInstance(Finalizer.class), providers, objects);
 			this.names = names;
 			this.registry = registry;
 		}
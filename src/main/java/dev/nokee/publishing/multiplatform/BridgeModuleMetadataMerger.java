@@ -0,0 +1,111 @@
+package dev.nokee.publishing.multiplatform;
+
+import groovy.json.JsonSlurper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merges the variants of platform modules into the bridge module metadata as remote variants (i.e. {@literal available-at}).
+ * The output is canonical: identical modules give identical bytes regardless of the order the platform modules are added.
+ * The bridge variants come first, as generated by Gradle, followed by the remote variants ordered by platform module coordinate,
+ * each keeping the variant order of its platform module, with attributes sorted by name like Gradle's own writer.
+ * The keys of each remote variant follow Gradle's order whatever their order in the platform module.
+ */
+final class BridgeModuleMetadataMerger {
+	// Gradle's key order of remote variants, unknown keys (e.g. of newer formats) follow in name order
+	private static final List<String> REMOTE_VARIANT_KEYS = Arrays.asList("name", "description", "attributes", "available-at", "capabilities");
+	private final Map<String, Object> root;
+	private final Map<String, List<Map<String, Object>>> remoteVariants = new TreeMap<>();
+
+	@SuppressWarnings("unchecked")
+	public BridgeModuleMetadataMerger(String bridgeModule) {
+		this.root = (Map<String, Object>) new JsonSlurper().parseText(bridgeModule);
+	}
+
+	/**
+	 * Adds each variant of the specified platform module as a remote variant of the bridge module.
+	 * Adding the same platform module again replaces its remote variants.
+	 *
+	 * @param group  the platform module group
+	 * @param module  the platform module name
+	 * @param version  the platform module version
+	 * @param platformModule  the platform module metadata content
+	 * @return the number of variants added
+	 */
+	@SuppressWarnings("unchecked")
+	public int addRemoteVariants(String group, String module, String version, String platformModule) {
+		return addRemoteVariants(group, module, version, (Map<String, Object>) new JsonSlurper().parseText(platformModule));
+	}
+
+	/**
+	 * Adds each variant of the specified platform module as a remote variant of the bridge module.
+	 * The platform module coordinate comes from the platform module metadata itself.
+	 *
+	 * @param platformModule  the platform module metadata content
+	 * @return the number of variants added
+	 */
+	@SuppressWarnings("unchecked")
+	public int addRemoteVariants(String platformModule) {
+		Map<String, Object> platformRoot = (Map<String, Object>) new JsonSlurper().parseText(platformModule);
+		Map<String, Object> component = (Map<String, Object>) platformRoot.get("component");
+		return addRemoteVariants((String) component.get("group"), (String) component.get("module"), (String) component.get("version"), platformRoot);
+	}
+
+	@SuppressWarnings("unchecked")
+	private int addRemoteVariants(String group, String module, String version, Map<String, Object> platformRoot) {
+		List<Map<String, Object>> platformVariants = (List<Map<String, Object>>) platformRoot.get("variants");
+		List<Map<String, Object>> variants = new ArrayList<>(platformVariants.size());
+		for (Map<String, Object> platformVariant : platformVariants) {
+			Map<String, Object> remaining = new TreeMap<>(platformVariant);
+			remaining.remove("dependencies");
+			remaining.remove("dependencyConstraints");
+			remaining.remove("files");
+			if (remaining.get("attributes") instanceof Map) {
+				remaining.put("attributes", new TreeMap<>((Map<String, Object>) remaining.get("attributes")));
+			}
+
+			Map<String, Object> availableAt = new LinkedHashMap<>();
+			availableAt.put("url", "../../" + module + "/" + version);
+			availableAt.put("group", group);
+			availableAt.put("module", module);
+			availableAt.put("version", version);
+			remaining.put("available-at", availableAt);
+
+			Map<String, Object> variant = new LinkedHashMap<>();
+			for (String key : REMOTE_VARIANT_KEYS) {
+				if (remaining.containsKey(key)) {
+					variant.put(key, remaining.remove(key));
+				}
+			}
+			variant.putAll(remaining);
+			variants.add(variant);
+		}
+		remoteVariants.put(group + ":" + module + ":" + version, variants);
+		return platformVariants.size();
+	}
+
+	/**
+	 * Writes the merged bridge module metadata.
+	 *
+	 * @param out  the writer to write to, closed once written
+	 * @throws IOException if an I/O error occurs
+	 */
+	@SuppressWarnings("unchecked")
+	public void writeTo(Writer out) throws IOException {
+		List<Object> variants = new ArrayList<>((List<Object>) root.get("variants"));
+		remoteVariants.values().forEach(variants::addAll);
+
+		Map<String, Object> result = new LinkedHashMap<>(root);
+		result.put("variants", variants);
+		try (JsonWriter writer = new JsonWriter(out)) {
+			writer.value((Object) result);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.resources.MissingResourceException;
+import org.gradle.api.resources.ResourceException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Computes the checksums of published files and compares them with the checksum files (i.e. sidecars) of a repository.
+ */
+final class Checksums {
+	private static final Logger LOGGER = Logging.getLogger(Checksums.class);
+
+	/**
+	 * The checksum algorithms published by Gradle next to each file, the sidecar extension is the lowercase algorithm without dash.
+	 */
+	static final String[] ALGORITHMS = new String[] {"MD5", "SHA-1", "SHA-256", "SHA-512"};
+
+	private Checksums() {}
+
+	/**
+	 * {@return the sidecar file extension of the specified algorithm, e.g. {@literal sha256}}
+	 *
+	 * @param algorithm  the checksum algorithm
+	 */
+	public static String extensionOf(String algorithm) {
+		return algorithm.replace("-", "").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * {@return the lowercase hexadecimal checksum of the specified content}
+	 *
+	 * @param algorithm  the checksum algorithm
+	 * @param content  the content to hash
+	 */
+	public static String hash(String algorithm, byte[] content) {
+		return toHex(newDigest(algorithm).digest(content));
+	}
+
+	/**
+	 * {@return the lowercase hexadecimal checksum of the specified file}
+	 *
+	 * @param algorithm  the checksum algorithm
+	 * @param file  the file to hash
+	 */
+	public static String hash(String algorithm, Path file) {
+		MessageDigest digest = newDigest(algorithm);
+		try (InputStream inStream = Files.newInputStream(file)) {
+			byte[] buffer = new byte[65536];
+			int length;
+			while ((length = inStream.read(buffer)) != -1) {
+				digest.update(buffer, 0, length);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Checks the specified file is already published identically, i.e. its checksum matches the checksum file of the repository.
+	 * The SHA-256 checksum file is preferred, the SHA-1 checksum file is used for repositories without it.
+	 * A checksum file that can't be read (e.g. unauthorized or server error) is considered different, publishing the file reports the actual problem.
+	 *
+	 * @param transport  the repository transport
+	 * @param path  the file path relative to the repository
+	 * @param file  the local file
+	 * @return {@code true} if the published file is identical or {@code false} otherwise, including when the file isn't published or its checksum can't be read
+	 */
+	public static boolean isPublishedIdentically(RepositoryTransport transport, String path, Path file) {
+		for (String algorithm : new String[] {"SHA-256", "SHA-1"}) {
+			String remoteChecksum;
+			try {
+				remoteChecksum = new String(transport.get(path + "." + extensionOf(algorithm)), StandardCharsets.US_ASCII).trim();
+			} catch (MissingResourceException ex) {
+				continue; // try weaker checksum
+			} catch (ResourceException ex) {
+				LOGGER.info(String.format("Could not compare '%s' with the published file, publishing it.", path), ex);
+				return false;
+			}
+
+			// some tools write the file name after the checksum
+			int separator = remoteChecksum.indexOf(' ');
+			if (separator != -1) {
+				remoteChecksum = remoteChecksum.substring(0, separator);
+			}
+			// older publishers didn't pad checksums with leading zeros
+			return stripLeadingZeros(remoteChecksum).equalsIgnoreCase(stripLeadingZeros(hash(algorithm, file)));
+		}
+		return false;
+	}
+
+	private static String stripLeadingZeros(String checksum) {
+		int index = 0;
+		while (index < checksum.length() - 1 && checksum.charAt(index) == '0') {
+			++index;
+		}
+		return checksum.substring(index);
+	}
+
+	private static MessageDigest newDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] digest) {
+		StringBuilder result = new StringBuilder(digest.length * 2);
+		for (byte b : digest) {
+			result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return result.toString();
+	}
+}
@@ -12,8 +12,8 @@ import javax.inject.Inject;
 /*private*/ abstract /*final*/ class IvyMultiplatformPublication extends AbstractMultiplatformPublication<IvyPublication> implements MultiplatformPublication<IvyPublication>, MultiplatformPublicationInternal {
 	@Inject
 	@SuppressWarnings("unchecked")
-	public IvyMultiplatformPublication(Names names, NamedDomainObjectProvider<IvyPublication> bridgePublication, NamedDomainObjectRegistry<IvyPublication> registry, NamedDomainObjectCollection<IvyPublication> collection, ObjectFactory objects) {
-		super(names, bridgePublication, objects.newInstance(PlatformPublicationsContainer.class, IvyPublication.class, names, registry, collection));
+	public IvyMultiplatformPublication(Names names, NamedDomainObjectProvider<IvyPublication> bridgePublication, NamedDomainObjectRegistry<IvyPublication> registry, NamedDomainObjectCollection<IvyPublication> collection, NamedElementsDispatcher<IvyPublication> dispatcher, ObjectFactory objects) {
+		super(names, bridgePublication, objects.newInstance(PlatformPublicationsContainer.class, IvyPublication.class, names, registry, collection, dispatcher));
 	}
 
 	@Override
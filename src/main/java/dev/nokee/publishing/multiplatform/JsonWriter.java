@@ -0,0 +1,232 @@
+package dev.nokee.publishing.multiplatform;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Streaming JSON writer producing the same layout as Gradle's module metadata writer (two spaces indent, {@literal ": "} separator, trailing newline).
+ */
+final class JsonWriter implements Closeable, Flushable {
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_OBJECT = 2;
+	private static final int NONEMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int EMPTY_ARRAY = 5;
+	private static final int NONEMPTY_ARRAY = 6;
+
+	private final Writer out;
+	private int[] stack = new int[32];
+	private int stackSize = 0;
+
+	public JsonWriter(Writer out) {
+		this.out = out;
+		push(EMPTY_DOCUMENT);
+	}
+
+	public JsonWriter beginObject() throws IOException {
+		beforeValue();
+		push(EMPTY_OBJECT);
+		out.write('{');
+		return this;
+	}
+
+	public JsonWriter endObject() throws IOException {
+		return closeScope(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+	}
+
+	public JsonWriter beginArray() throws IOException {
+		beforeValue();
+		push(EMPTY_ARRAY);
+		out.write('[');
+		return this;
+	}
+
+	public JsonWriter endArray() throws IOException {
+		return closeScope(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+	}
+
+	public JsonWriter name(String name) throws IOException {
+		int context = peek();
+		if (context == NONEMPTY_OBJECT) {
+			out.write(',');
+		} else if (context != EMPTY_OBJECT) {
+			throw new IllegalStateException("Nesting problem.");
+		}
+		newline();
+		replaceTop(DANGLING_NAME);
+		string(name);
+		return this;
+	}
+
+	public JsonWriter value(String value) throws IOException {
+		if (value == null) {
+			return literal("null");
+		}
+		beforeValue();
+		string(value);
+		return this;
+	}
+
+	/**
+	 * Writes a number, boolean or {@literal null} literal as-is.
+	 *
+	 * @param literal  the raw JSON literal
+	 * @return this writer
+	 */
+	public JsonWriter literal(String literal) throws IOException {
+		beforeValue();
+		out.write(literal);
+		return this;
+	}
+
+	/**
+	 * Writes a value as returned by {@link groovy.json.JsonSlurper}, i.e. maps, lists, strings, numbers, booleans and {@literal null}.
+	 *
+	 * @param value  the value to write
+	 * @return this writer
+	 */
+	public JsonWriter value(Object value) throws IOException {
+		if (value == null) {
+			return literal("null");
+		} else if (value instanceof CharSequence) {
+			return value(value.toString());
+		} else if (value instanceof Number || value instanceof Boolean) {
+			return literal(value.toString());
+		} else if (value instanceof Map) {
+			beginObject();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				name(entry.getKey().toString());
+				value(entry.getValue());
+			}
+			return endObject();
+		} else if (value instanceof Iterable) {
+			beginArray();
+			for (Object element : (Iterable<?>) value) {
+				value(element);
+			}
+			return endArray();
+		}
+		throw new IllegalArgumentException("Unsupported JSON value of type '" + value.getClass().getName() + "'.");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		// always release the underlying writer, e.g. when closing after a failed write
+		try {
+			if (stackSize > 1 || peek() != NONEMPTY_DOCUMENT) {
+				throw new IOException("Incomplete document");
+			}
+			out.write('\n');
+		} finally {
+			out.close();
+		}
+	}
+
+	private JsonWriter closeScope(int empty, int nonempty, char closeBracket) throws IOException {
+		int context = peek();
+		if (context != nonempty && context != empty) {
+			throw new IllegalStateException("Nesting problem.");
+		}
+		stackSize--;
+		if (context == nonempty) {
+			newline();
+		}
+		out.write(closeBracket);
+		return this;
+	}
+
+	private void beforeValue() throws IOException {
+		switch (peek()) {
+			case NONEMPTY_DOCUMENT:
+				throw new IllegalStateException("JSON must have only one top-level value.");
+			case EMPTY_DOCUMENT:
+				replaceTop(NONEMPTY_DOCUMENT);
+				break;
+			case EMPTY_ARRAY:
+				replaceTop(NONEMPTY_ARRAY);
+				newline();
+				break;
+			case NONEMPTY_ARRAY:
+				out.write(',');
+				newline();
+				break;
+			case DANGLING_NAME:
+				out.write(": ");
+				replaceTop(NONEMPTY_OBJECT);
+				break;
+			default:
+				throw new IllegalStateException("Nesting problem.");
+		}
+	}
+
+	private void newline() throws IOException {
+		out.write('\n');
+		for (int i = 1; i < stackSize; i++) {
+			out.write("  ");
+		}
+	}
+
+	private void string(String value) throws IOException {
+		out.write('"');
+		int last = 0;
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String replacement;
+			if (c < 0x20) {
+				switch (c) {
+					case '\t': replacement = "\\t"; break;
+					case '\b': replacement = "\\b"; break;
+					case '\n': replacement = "\\n"; break;
+					case '\r': replacement = "\\r"; break;
+					case '\f': replacement = "\\f"; break;
+					default: replacement = String.format("\\u%04x", (int) c);
+				}
+			} else if (c == '"') {
+				replacement = "\\\"";
+			} else if (c == '\\') {
+				replacement = "\\\\";
+			} else if (c == '\u2028') {
+				replacement = "\\u2028";
+			} else if (c == '\u2029') {
+				replacement = "\\u2029";
+			} else {
+				continue;
+			}
+			if (last < i) {
+				out.write(value, last, i - last);
+			}
+			out.write(replacement);
+			last = i + 1;
+		}
+		if (last < length) {
+			out.write(value, last, length - last);
+		}
+		out.write('"');
+	}
+
+	private int peek() {
+		return stack[stackSize - 1];
+	}
+
+	private void push(int context) {
+		if (stackSize == stack.length) {
+			stack = Arrays.copyOf(stack, stackSize * 2);
+		}
+		stack[stackSize++] = context;
+	}
+
+	private void replaceTop(int context) {
+		stack[stackSize - 1] = context;
+	}
+}
@@ -0,0 +1,139 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.GradleException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Locates the Maven Local repository the same way Gradle's {@literal mavenLocal()} does.
+ * In order of precedence:
+ * <ol>
+ *     <li>the {@literal maven.repo.local} system property,</li>
+ *     <li>the {@literal localRepository} of the user settings file ({@literal ~/.m2/settings.xml}),</li>
+ *     <li>the {@literal localRepository} of the global settings file ({@literal $M2_HOME/conf/settings.xml}),</li>
+ *     <li>the default {@literal ~/.m2/repository}.</li>
+ * </ol>
+ */
+final class MavenLocalRepositoryLocator {
+	private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+	private final Function<String, String> systemProperties;
+	private final Function<String, String> environmentVariables;
+
+	MavenLocalRepositoryLocator(Function<String, String> systemProperties, Function<String, String> environmentVariables) {
+		this.systemProperties = systemProperties;
+		this.environmentVariables = environmentVariables;
+	}
+
+	/**
+	 * {@return a locator using the current system properties and environment variables}
+	 */
+	public static MavenLocalRepositoryLocator system() {
+		return new MavenLocalRepositoryLocator(System::getProperty, System::getenv);
+	}
+
+	/**
+	 * {@return the Maven Local repository directory}
+	 */
+	public File locate() {
+		String localRepository = systemProperties.apply("maven.repo.local");
+		if (localRepository != null) {
+			return new File(localRepository).getAbsoluteFile();
+		}
+
+		Path userHome = Paths.get(systemProperties.apply("user.home"));
+		localRepository = readLocalRepository(userHome.resolve(".m2/settings.xml"));
+		if (localRepository == null) {
+			String m2Home = environmentVariables.apply("M2_HOME");
+			if (m2Home != null) {
+				localRepository = readLocalRepository(Paths.get(m2Home, "conf", "settings.xml"));
+			}
+		}
+
+		if (localRepository != null) {
+			return new File(resolvePlaceholders(localRepository)).getAbsoluteFile();
+		}
+		return userHome.resolve(".m2/repository").toFile();
+	}
+
+	/**
+	 * {@return the Maven Local repository URL, always ending with a slash even when the directory doesn't exist yet}
+	 */
+	public URI locateUrl() {
+		URI result = locate().toURI();
+		if (!result.getPath().endsWith("/")) {
+			result = URI.create(result + "/");
+		}
+		return result;
+	}
+
+	private static String readLocalRepository(Path settingsFile) {
+		if (!Files.isRegularFile(settingsFile)) {
+			return null;
+		}
+
+		try (InputStream inStream = Files.newInputStream(settingsFile)) {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			XMLStreamReader reader = factory.createXMLStreamReader(inStream);
+			try {
+				int depth = 0;
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+						if (depth == 2 && reader.getLocalName().equals("localRepository")) {
+							String result = reader.getElementText().trim();
+							return result.isEmpty() ? null : result;
+						}
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+					}
+				}
+				return null;
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (XMLStreamException e) {
+			throw new GradleException(String.format("Unable to parse local Maven settings file '%s'.", settingsFile), e);
+		}
+	}
+
+	private String resolvePlaceholders(String value) {
+		Matcher matcher = PLACEHOLDER_PATTERN.matcher(value);
+		StringBuffer result = new StringBuffer();
+		while (matcher.find()) {
+			String placeholder = matcher.group(1);
+			String replacement;
+			if (placeholder.startsWith("env.")) {
+				replacement = environmentVariables.apply(placeholder.substring("env.".length()));
+			} else {
+				replacement = systemProperties.apply(placeholder);
+			}
+
+			if (replacement == null) {
+				throw new GradleException(String.format("Cannot resolve placeholder '%s' in value '%s'.", placeholder, value));
+			}
+			matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+		}
+		matcher.appendTail(result);
+		return result.toString();
+	}
+}
@@ -0,0 +1,105 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Merges the module-level {@literal maven-metadata.xml} of a staging repository with the one of the remote repository.
+ * The staging repository only knows about the staged version, the remote versions must be kept when uploading.
+ */
+final class MavenMetadataMerger {
+	private MavenMetadataMerger() {}
+
+	/**
+	 * Adds the versions of the remote metadata to the staged metadata.
+	 * Everything else comes from the staged metadata (i.e. latest, release and last updated).
+	 *
+	 * @param remoteMetadata  the metadata currently in the remote repository
+	 * @param stagedMetadata  the metadata of the staging repository
+	 * @return the merged metadata
+	 */
+	public static byte[] merge(byte[] remoteMetadata, byte[] stagedMetadata) {
+		try {
+			DocumentBuilder builder = newDocumentBuilder();
+			Document remote = builder.parse(new ByteArrayInputStream(remoteMetadata));
+			Document staged = builder.parse(new ByteArrayInputStream(stagedMetadata));
+
+			Set<String> versions = new LinkedHashSet<>();
+			versions.addAll(versionsOf(remote));
+			versions.addAll(versionsOf(staged));
+
+			Element versionsElement = versionsElementOf(staged);
+			while (versionsElement.hasChildNodes()) {
+				versionsElement.removeChild(versionsElement.getFirstChild());
+			}
+			for (String version : versions) {
+				Element versionElement = staged.createElement("version");
+				versionElement.setTextContent(version);
+				versionsElement.appendChild(versionElement);
+			}
+
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			transformer.transform(new DOMSource(staged), new StreamResult(result));
+			return result.toByteArray();
+		} catch (ParserConfigurationException | SAXException | IOException | TransformerException e) {
+			throw new RuntimeException("Could not merge Maven metadata.", e);
+		}
+	}
+
+	private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		return factory.newDocumentBuilder();
+	}
+
+	private static Set<String> versionsOf(Document document) {
+		Set<String> result = new LinkedHashSet<>();
+		NodeList versions = document.getElementsByTagName("version");
+		for (int i = 0; i < versions.getLength(); ++i) {
+			Node version = versions.item(i);
+			if (version.getParentNode().getNodeName().equals("versions")) {
+				result.add(version.getTextContent().trim());
+			}
+		}
+		return result;
+	}
+
+	private static Element versionsElementOf(Document document) {
+		NodeList versions = document.getElementsByTagName("versions");
+		if (versions.getLength() > 0) {
+			return (Element) versions.item(0);
+		}
+
+		NodeList versioning = document.getElementsByTagName("versioning");
+		Element versioningElement;
+		if (versioning.getLength() > 0) {
+			versioningElement = (Element) versioning.item(0);
+		} else {
+			versioningElement = document.createElement("versioning");
+			document.getDocumentElement().appendChild(versioningElement);
+		}
+		Element result = document.createElement("versions");
+		versioningElement.appendChild(result);
+		return result;
+	}
+}
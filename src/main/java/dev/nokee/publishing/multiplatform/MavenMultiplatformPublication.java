@@ -12,8 +12,8 @@ import javax.inject.Inject;
 /*private*/ abstract /*final*/ class MavenMultiplatformPublication extends AbstractMultiplatformPublication<MavenPublication> implements MultiplatformPublication<MavenPublication>, MultiplatformPublicationInternal {
 	@Inject
 	@SuppressWarnings("unchecked")
-	public MavenMultiplatformPublication(Names names, NamedDomainObjectProvider<MavenPublication> bridgePublication, NamedDomainObjectRegistry<MavenPublication> registry, NamedDomainObjectCollection<MavenPublication> collection, ObjectFactory objects) {
-		super(names, bridgePublication, objects.newInstance(PlatformPublicationsContainer.class, MavenPublication.class, names, registry, collection));
+	public MavenMultiplatformPublication(Names names, NamedDomainObjectProvider<MavenPublication> bridgePublication, NamedDomainObjectRegistry<MavenPublication> registry, NamedDomainObjectCollection<MavenPublication> collection, NamedElementsDispatcher<MavenPublication> dispatcher, ObjectFactory objects) {
+		super(names, bridgePublication, objects.newInstance(PlatformPublicationsContainer.class, MavenPublication.class, names, registry, collection, dispatcher));
 	}
 
 	@Override
@@ -1,48 +1,47 @@
 package dev.nokee.publishing.multiplatform;
 
-import dev.nokee.commons.backports.ConfigurationRegistry;
-import dev.nokee.commons.backports.DependencyFactory;
 import dev.nokee.commons.gradle.NamedDomainObjectRegistry;
 import dev.nokee.commons.names.Names;
-import groovy.json.JsonBuilder;
-import groovy.json.JsonSlurper;
 import org.codehaus.groovy.runtime.StringGroovyMethods;
 import org.gradle.api.*;
-import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.dsl.RepositoryHandler;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.AuthenticationSupported;
 import org.gradle.api.artifacts.repositories.IvyArtifactRepository;
 import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
-import org.gradle.api.attributes.Attribute;
+import org.gradle.api.artifacts.repositories.PasswordCredentials;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.publish.Publication;
+import org.gradle.api.publish.PublicationArtifact;
 import org.gradle.api.publish.PublicationContainer;
 import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.ivy.IvyArtifact;
 import org.gradle.api.publish.ivy.IvyPublication;
-import org.gradle.api.publish.ivy.tasks.GenerateIvyDescriptor;
 import org.gradle.api.publish.ivy.tasks.PublishToIvyRepository;
+import org.gradle.api.publish.maven.MavenArtifact;
 import org.gradle.api.publish.maven.MavenPublication;
-import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
 import org.gradle.api.publish.maven.tasks.PublishToMavenLocal;
 import org.gradle.api.publish.maven.tasks.PublishToMavenRepository;
 import org.gradle.api.publish.plugins.PublishingPlugin;
 import org.gradle.api.publish.tasks.GenerateModuleMetadata;
 import org.gradle.api.reflect.TypeOf;
 import org.gradle.api.resources.MissingResourceException;
-import org.gradle.api.resources.ResourceHandler;
 import org.gradle.api.specs.Spec;
-import org.gradle.api.tasks.TaskCollection;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskContainer;
-import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.api.tasks.TaskProvider;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -50,26 +49,38 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.regex.Pattern;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static dev.nokee.commons.gradle.ActionUtils.ignored;
-import static dev.nokee.commons.gradle.SpecUtils.named;
 import static dev.nokee.commons.gradle.TransformerUtils.traverse;
 import static dev.nokee.commons.names.PublishingTaskNames.*;
 import static dev.nokee.publishing.multiplatform.MinimalGMVPublication.wrap;
 import static org.codehaus.groovy.runtime.StringGroovyMethods.capitalize;
+import static org.codehaus.groovy.runtime.StringGroovyMethods.uncapitalize;
 
 /*private*/ abstract /*final*/ class MultiplatformPublishingPlugin implements Plugin<Project> {
 	private static final Class<AbstractMultiplatformPublication<? extends Publication>> MultiplatformPublicationInternal = new TypeOf<AbstractMultiplatformPublication<? extends Publication>>() {}.getConcreteClass();
 	private static Logger LOGGER = Logging.getLogger(MultiplatformPublishingPlugin.class);
+	static final String LAZY_PROPERTY = "dev.nokee.multiplatform-publishing.lazy";
+	static final String STAGED_UPLOAD_PROPERTY = "dev.nokee.multiplatform-publishing.staged-upload";
+	static final String INCREMENTAL_PROPERTY = "dev.nokee.multiplatform-publishing.incremental";
+	static final String PLATFORM_MANIFESTS_PROPERTY = "dev.nokee.multiplatform-publishing.platform-manifests";
+	static final String LOCAL_PLATFORM_MODULES_PROPERTY = "dev.nokee.multiplatform-publishing.local-platform-modules";
+	static final String PUBLISH_MULTIPLATFORM_TASK_NAME = "publishMultiplatform";
+	private static final String MAVEN_LOCAL_TARGET = "MavenLocal";
+	static final String MAVEN_STAGING_REPOSITORY_NAME = "multiplatformMavenStaging";
+	static final String IVY_STAGING_REPOSITORY_NAME = "multiplatformIvyStaging";
 	private final ObjectFactory objects;
 	private final TaskContainer tasks;
+	private final ProviderFactory providers;
 
 	@Inject
-	public MultiplatformPublishingPlugin(ObjectFactory objects, TaskContainer tasks) {
+	public MultiplatformPublishingPlugin(ObjectFactory objects, TaskContainer tasks, ProviderFactory providers) {
 		this.objects = objects;
 		this.tasks = tasks;
+		this.providers = providers;
 	}
 
 	@Override
@@ -79,15 +90,19 @@ import static org.codehaus.groovy.runtime.StringGroovyMethods.capitalize;
 		MultiplatformPublishingExtension extension = project.getExtensions().create(MultiplatformPublishingExtension.class, "multiplatform", Extension.class);
 		PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
 		project.getPluginManager().withPlugin("maven-publish", ignored(() -> {
+			NamedDomainObjectCollection<MavenPublication> platformPublications = publishing.getPublications().withType(MavenPublication.class);
+			NamedElementsDispatcher<MavenPublication> platformPublicationsDispatcher = NamedElementsDispatcher.of(platformPublications, Publication::getName);
 			extension.getPublications().registerFactory(MavenMultiplatformPublication.class, name -> {
 				NamedDomainObjectProvider<MavenPublication> bridgePublication = publishing.getPublications().register(name, MavenPublication.class);
-				return objects.newInstance(MavenMultiplatformPublication.class, Names.of(name), bridgePublication, new NamedDomainObjectRegistry<>(publishing.getPublications().containerWithType(MavenPublication.class)), publishing.getPublications().withType(MavenPublication.class));
+				return objects.newInstance(MavenMultiplatformPublication.class, Names.of(name), bridgePublication, new NamedDomainObjectRegistry<>(publishing.getPublications().containerWithType(MavenPublication.class)), platformPublications, platformPublicationsDispatcher);
 			});
 		}));
 		project.getPluginManager().withPlugin("ivy-publish", ignored(() -> {
+			NamedDomainObjectCollection<IvyPublication> platformPublications = publishing.getPublications().withType(IvyPublication.class);
+			NamedElementsDispatcher<IvyPublication> platformPublicationsDispatcher = NamedElementsDispatcher.of(platformPublications, Publication::getName);
 			extension.getPublications().registerFactory(IvyMultiplatformPublication.class, name -> {
 				NamedDomainObjectProvider<IvyPublication> bridgePublication = publishing.getPublications().register(name, IvyPublication.class);
-				return objects.newInstance(IvyMultiplatformPublication.class, Names.of(name), bridgePublication, new NamedDomainObjectRegistry<>(publishing.getPublications().containerWithType(IvyPublication.class)), publishing.getPublications().withType(IvyPublication.class));
+				return objects.newInstance(IvyMultiplatformPublication.class, Names.of(name), bridgePublication, new NamedDomainObjectRegistry<>(publishing.getPublications().containerWithType(IvyPublication.class)), platformPublications, platformPublicationsDispatcher);
 			});
 		}));
 
@@ -121,371 +136,733 @@ import static org.codehaus.groovy.runtime.StringGroovyMethods.capitalize;
 					throw new IllegalStateException("must not configure platform's " + (platformPublication.delegate() instanceof IvyPublication ? "revision" : "version"));
 				}
 
-				platformPublication.setModule(mainPublication.getModule());
+				// Platform publications are published with their final coordinate, as aliases they don't compete with the bridge publication for project dependencies
+				platformPublication.setModule(variantArtifactIds.get(platformPublication));
 				platformPublication.setGroup(mainPublication.getGroup());
 				platformPublication.setVersion(mainPublication.getVersion());
+				PublicationInternals.setAlias(platformPublication.delegate());
 			}));
 			publication.getPlatformArtifacts().set(publication.getPlatformPublications().getElements().map(traverse(wrap(variantArtifactIds::get))));
-
-			publication.getPlatformPublications().configureEach(platformPublication -> {
-				// all generate metadata for variant
-				project.getTasks().named(generateMetadataFileTaskName(platformPublication), GenerateModuleMetadata.class).configure(task -> {
-					//   - doLast, override name to correct artifactId
-					task.doLast("", ignored(new Runnable() {
-						@Override
-						public void run() {
-							File out = task.getOutputFile().get().getAsFile();
-
-							try {
-								String content = new String(Files.readAllBytes(out.toPath()))
-									.replace("\"url\": \"" + wrap(task.getPublication().get()).getModule() + "-", "\"url\": \"" + variantArtifactIds.get(wrap(task.getPublication().get())) + "-")
-									.replace("\"module\": \"" + wrap(task.getPublication().get()).getModule() + "\",", "\"module\": \"" + variantArtifactIds.get(wrap(task.getPublication().get())) + "\",");
-								Files.write(out.toPath(), content.getBytes(StandardCharsets.UTF_8));
-							} catch (IOException e) {
-								throw new UncheckedIOException(e);
-							}
-						}
-					}));
-				});
-
-				if (platformPublication instanceof MavenPublication) {
-					// all generate pom for variant
-					tasks.withType(GenerateMavenPom.class).configureEach(named(generatePomFileTaskName(platformPublication)::equals).whenSatisfied(task -> {
-						//   - doLast, override artifactId to correct artifact Id
-						task.doLast(ignored(new Runnable() {
-							@Override
-							public void run() {
-								try {
-									Pattern pattern = Pattern.compile("<artifactId>[^<]+</artifactId>");
-									List<String> lines = Files.readAllLines(task.getDestination().toPath()).stream().map(t -> {
-										return pattern.matcher(t).replaceFirst("<artifactId>" + variantArtifactIds.get(wrap(platformPublication)) + "</artifactId>");
-									}).collect(Collectors.toList());
-									Files.write(task.getDestination().toPath(), lines);
-								} catch (Throwable e) {
-									throw new RuntimeException(e);
-								}
-							}
-						}));
-					}));
-
-					tasks.withType(PublishToMavenRepository.class).configureEach(publishTasks(platformPublication, task -> {
-						task.doFirst("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setArtifactId(variantArtifactIds.get(wrap(task.getPublication())));
-							}
-						}));
-						task.doLast("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setArtifactId(publication.getBridgePublication().map(MavenPublication.class::cast).map(MavenPublication::getArtifactId).get());
-							}
-						}));
-					}));
-					tasks.withType(PublishToMavenLocal.class).configureEach(publishTasks(platformPublication, task -> {
-						task.doFirst("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setArtifactId(variantArtifactIds.get(wrap(task.getPublication())));
-							}
-						}));
-						task.doLast("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setArtifactId(publication.getBridgePublication().map(MavenPublication.class::cast).map(MavenPublication::getArtifactId).get());
-							}
-						}));
-					}));
-				}
-
-				if (platformPublication instanceof IvyPublication) {
-					// all generate ivy for variant
-					tasks.withType(GenerateIvyDescriptor.class).configureEach(named(generateDescriptorFileTaskName(platformPublication)::equals).whenSatisfied(task -> {
-						//   - doLast, override artifactId to correct artifact Id
-						task.doLast(ignored(new Runnable() {
-							@Override
-							public void run() {
-								try {
-									Pattern pattern = Pattern.compile(" module=\"[^\"]+\" ");
-									List<String> lines = Files.readAllLines(task.getDestination().toPath()).stream().map(t -> {
-										return pattern.matcher(t).replaceFirst(" module=\"" + variantArtifactIds.get(wrap(platformPublication)) + "\" ");
-									}).collect(Collectors.toList());
-									Files.write(task.getDestination().toPath(), lines);
-								} catch (Throwable e) {
-									throw new RuntimeException(e);
-								}
-							}
-						}));
-					}));
-
-					tasks.withType(PublishToIvyRepository.class).configureEach(publishTasks(platformPublication, task -> {
-						task.doFirst("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setModule(variantArtifactIds.get(wrap(task.getPublication())));
-							}
-						}));
-						task.doLast("", ignored(new Runnable() {
-							@Override
-							public void run() {
-								task.getPublication().setModule(publication.getBridgePublication().map(IvyPublication.class::cast).map(IvyPublication::getModule).get());
-							}
-						}));
-					}));
-				}
-			});
 		});
 
 
 
 		// PUBLISH ROOT after variants
+		PublishTasksDispatcher<Task> publishTasks = PublishTasksDispatcher.of(tasks);
 		extension.getPublications().withType(MultiplatformPublicationInternal).configureEach(publication -> {
 			// Component publication must run after variant publications
-			publication.getBridgePublication().configure(publishTasks(project.getTasks(), task -> {
-				task.mustRunAfter((Callable<?>) () -> {
-					return publication.getPlatformPublications().getElements().get().stream().map(it -> task.getName().replace(capitalize(publication.getBridgePublication().getName()), capitalize(it.getName()))).collect(Collectors.toList());
+			publication.getBridgePublication().configure(bridgePublication -> {
+				publishTasks.configureEach(bridgePublication, task -> {
+					task.mustRunAfter((Callable<?>) () -> {
+						return publication.getPlatformPublications().getElements().get().stream().map(it -> task.getName().replace(capitalize(publication.getBridgePublication().getName()), capitalize(it.getName()))).collect(Collectors.toList());
+					});
 				});
-			}));
+			});
 		});
 
 
 
-		extension.getPublications().withType(MultiplatformPublicationInternal).configureEach(publication -> {
-			NamedDomainObjectProvider<Configuration> canaryElements = objects.newInstance(ConfigurationRegistry.class).consumable(Names.of(publication.getName()).append("canaryElements").toString());
-			canaryElements.configure(config -> {
-				config.setVisible(false);
-				config.setDescription("Canary elements for " + publication);
-				config.attributes(attributes -> attributes.attribute(Attribute.of("dev.nokee.dummy", String.class), "oui"));
-			});
-
-			publication.bridgePublication(bridgePublication -> {
-				tasks.named(generateMetadataFileTaskName(bridgePublication), GenerateModuleMetadata.class).configure(task -> {
-					task.doLast("", ignored(new Runnable() {
-						@Override
-						public void run() {
-							File out = task.getOutputFile().get().getAsFile();
-
-							@SuppressWarnings("unchecked")
-							Map<String, Object> root = (Map<String, Object>) new JsonSlurper().parse(out);
-							@SuppressWarnings("unchecked")
-							List<Map<String, Object>> var = (List<Map<String, Object>>) root.get("variants");
-							if (var.removeIf(t -> t.get("name").equals(canaryElements.getName()))) {
-								try (Writer writer = Files.newBufferedWriter(out.toPath())) {
-									new JsonBuilder(root).writeTo(writer);
-								} catch (IOException e) {
-									throw new UncheckedIOException(e);
-								}
-							}
-						}
-					}));
-				});
-			});
-			publication.getPlatformPublications().configureEach(platformPublication -> {
-				tasks.named(generateMetadataFileTaskName(platformPublication), GenerateModuleMetadata.class).configure(task -> {
-					task.doLast("", ignored(new Runnable() {
-						@Override
-						public void run() {
-							File out = task.getOutputFile().get().getAsFile();
-
-							@SuppressWarnings("unchecked")
-							Map<String, Object> root = (Map<String, Object>) new JsonSlurper().parse(out);
-							@SuppressWarnings("unchecked")
-							List<Map<String, Object>> var = (List<Map<String, Object>>) root.get("variants");
-							if (var.removeIf(t -> t.get("name").equals(canaryElements.getName()))) {
-								try (Writer writer = Files.newBufferedWriter(out.toPath())) {
-									new JsonBuilder(root).writeTo(writer);
-								} catch (IOException e) {
-									throw new UncheckedIOException(e);
-								}
-							}
-						}
-					}));
-				});
-			});
+		// Complete ROOT module metadata remote variants
+		// Validated when read so an invalid value fails the configuration instead of the first publish task
+		int maxConcurrentRequests = providers.gradleProperty(PlatformModulesService.MAX_CONCURRENT_REQUESTS_PROPERTY).map(PlatformModulesService::parseMaxConcurrentRequests).getOrElse(PlatformModulesService.DEFAULT_MAX_CONCURRENT_REQUESTS);
+		Provider<PlatformModulesService> platformModules = project.getGradle().getSharedServices().registerIfAbsent(PlatformModulesService.NAME, PlatformModulesService.class, spec -> {
+			spec.getParameters().getMaxConcurrentRequests().set(maxConcurrentRequests);
+			// Reading the build directory of the root project isn't allowed with isolated projects, the report goes to its default location
+			spec.getParameters().getReportFile().fileValue(new File(project.getRootDir(), "build/reports/multiplatform-publishing/publishing-statistics.json"));
 		});
+		extension.getPublications().withType(MultiplatformPublicationInternal).configureEach(project.getObjects().newInstance(AbstractMultiplatformPublicationAction.class, platformModules, publishing));
 
 
-		// Complete ROOT module metadata remote variants
-		extension.getPublications().withType(MultiplatformPublicationInternal).configureEach(project.getObjects().newInstance(AbstractMultiplatformPublicationAction.class, project.getResources()));
+		// Staged upload of the multiplatform publications
+		if (providers.gradleProperty(STAGED_UPLOAD_PROPERTY).map(Boolean::parseBoolean).getOrElse(false)) {
+			tasks.register(PUBLISH_MULTIPLATFORM_TASK_NAME, task -> {
+				task.setGroup(PublishingPlugin.PUBLISH_TASK_GROUP);
+				task.setDescription("Publishes all multiplatform publications produced by this project using staged uploads.");
+				task.dependsOn(tasks.withType(UploadMultiplatformPublication.class));
+			});
+			project.getPluginManager().withPlugin("maven-publish", ignored(() -> {
+				Provider<Directory> stagingDirectory = project.getLayout().getBuildDirectory().dir("multiplatform-staging/maven");
+				MavenArtifactRepository stagingRepository = publishing.getRepositories().maven(repository -> {
+					repository.setName(MAVEN_STAGING_REPOSITORY_NAME);
+					repository.setUrl(stagingDirectory.map(Directory::getAsFile));
+				});
+				BiFunction<String, String, String> modulePath = (group, module) -> group.replace('.', '/') + "/" + module;
+				tasks.withType(PublishToMavenRepository.class).configureEach(task -> {
+					task.doFirst("", new DeleteStagedModule(providers.provider(() -> task.getRepository() == stagingRepository ? stagedModuleDirectory(stagingDirectory, modulePath, task.getPublication()) : null)));
+				});
+				publishing.getRepositories().withType(MavenArtifactRepository.class).matching(it -> it != stagingRepository).configureEach(repository -> {
+					extension.getPublications().withType(MavenMultiplatformPublication.class).configureEach(publication -> {
+						registerUploadTask(publication, stagingRepository.getName(), stagingDirectory, repository, repository::getUrl, modulePath, platformModules);
+					});
+				});
+			}));
+			project.getPluginManager().withPlugin("ivy-publish", ignored(() -> {
+				Provider<Directory> stagingDirectory = project.getLayout().getBuildDirectory().dir("multiplatform-staging/ivy");
+				IvyArtifactRepository stagingRepository = publishing.getRepositories().ivy(repository -> {
+					repository.setName(IVY_STAGING_REPOSITORY_NAME);
+					repository.setUrl(stagingDirectory.map(Directory::getAsFile));
+				});
+				BiFunction<String, String, String> modulePath = (group, module) -> group + "/" + module;
+				tasks.withType(PublishToIvyRepository.class).configureEach(task -> {
+					task.doFirst("", new DeleteStagedModule(providers.provider(() -> task.getRepository() == stagingRepository ? stagedModuleDirectory(stagingDirectory, modulePath, task.getPublication()) : null)));
+				});
+				publishing.getRepositories().withType(IvyArtifactRepository.class).matching(it -> it != stagingRepository).configureEach(repository -> {
+					extension.getPublications().withType(IvyMultiplatformPublication.class).configureEach(publication -> {
+						registerUploadTask(publication, stagingRepository.getName(), stagingDirectory, repository, repository::getUrl, modulePath, platformModules);
+					});
+				});
+			}));
+		}
 
 
 		project.getExtensions().getExtraProperties().set("forMultiplatform", project.getObjects().newInstance(Closure.class, extension));
 
+		Provider<Boolean> lazy = providers.gradleProperty(LAZY_PROPERTY).map(Boolean::parseBoolean).orElse(false);
 		project.afterEvaluate(ignored(() -> {
-			extension.getPublications().all(ignored(() -> {}));
+			// In lazy mode, multiplatform publications (and their configurations and tasks) are only realized when the build may publish
+			if (!lazy.get() || PublishingTaskRequests.mayPublish(requestedTasks(project))) {
+				extension.getPublications().all(ignored(() -> {}));
+			}
 		}));
 //		project.getExtensions().getByType(PublishingExtension.class).getPublications().all(ignored(() -> {}));
 	}
 
-	private static <T extends Publication, S extends Task> Action<S> publishTasks(T publication, Action<? super S> action) {
-		return named(publishPublicationToAnyRepositories(publication)).whenSatisfied(action);
+	private <T extends ArtifactRepository & AuthenticationSupported> void registerUploadTask(AbstractMultiplatformPublication<? extends Publication> publication, String stagingRepositoryName, Provider<Directory> stagingRepositoryDirectory, T repository, Callable<URI> repositoryUrl, BiFunction<String, String, String> modulePath, Provider<PlatformModulesService> platformModules) {
+		String repositoryName = repository.getName();
+		tasks.register("publish" + capitalize(publication.getName()) + "MultiplatformPublicationTo" + capitalize(repositoryName) + "Repository", UploadMultiplatformPublication.class, task -> {
+			task.setGroup(PublishingPlugin.PUBLISH_TASK_GROUP);
+			task.setDescription("Publishes multiplatform publication '" + publication.getName() + "' to " + repositoryName + " repository using a staged upload.");
+			// Maven snapshots are published by the regular publish tasks, the repository keeps the snapshot history (i.e. timestamp and build number) of the version-level maven-metadata.xml
+			Provider<Boolean> snapshot = publication.getBridgePublication().map(it -> it instanceof MavenPublication && wrap(it).getVersion().endsWith("-SNAPSHOT"));
+			task.dependsOn((Callable<?>) () -> {
+				String targetRepositoryName = snapshot.get() ? repositoryName : stagingRepositoryName;
+				List<String> result = new ArrayList<>();
+				result.add(publishTaskName(publication.getBridgePublication().getName(), targetRepositoryName));
+				for (Publication platformPublication : publication.getPlatformPublications().getElements().get()) {
+					result.add(publishTaskName(platformPublication.getName(), targetRepositoryName));
+				}
+				return result;
+			});
+			task.getSnapshot().set(snapshot);
+			task.onlyIf("Maven snapshots are published without staging", it -> !((UploadMultiplatformPublication) it).getSnapshot().get());
+			task.getStagingRepository().set(stagingRepositoryDirectory);
+			task.getBridgeModulePath().set(publication.getBridgePublication().map(it -> modulePath.apply(wrap(it).getGroup(), wrap(it).getModule())));
+			task.getPlatformModulePaths().set(publication.getPlatformArtifacts().map(modules -> {
+				MinimalGMVPublication bridge = publication.getBridgePublication().map(MinimalGMVPublication::wrap).get();
+				return modules.stream().map(it -> modulePath.apply(bridge.getGroup(), it)).collect(Collectors.toList());
+			}));
+			task.getVersion().set(publication.getBridgePublication().map(it -> wrap(it).getVersion()));
+			task.getRepositoryUrl().set(providers.provider(repositoryUrl));
+			// the repository's own credentials, unsupported credentials fail the upload instead of uploading unauthenticated
+			Provider<PasswordCredentials> credentials = providers.provider(() -> RepositoryCredentials.of(repository));
+			task.getUsername().set(credentials.map(PasswordCredentials::getUsername));
+			task.getPassword().set(credentials.map(PasswordCredentials::getPassword));
+			task.getIncremental().set(providers.gradleProperty(INCREMENTAL_PROPERTY).map(Boolean::parseBoolean).orElse(false));
+			task.getPlatformModules().set(platformModules);
+			task.usesService(platformModules);
+		});
+	}
+
+	private static File stagedModuleDirectory(Provider<Directory> stagingRepositoryDirectory, BiFunction<String, String, String> modulePath, Publication publication) {
+		MinimalGMVPublication coordinate = wrap(publication);
+		return stagingRepositoryDirectory.get().dir(modulePath.apply(coordinate.getGroup(), coordinate.getModule())).getAsFile();
+	}
+
+	// The staged upload uploads every file of the staged module version, files staged by previous builds (e.g. older snapshots) must not be uploaded again
+	private static final class DeleteStagedModule implements Action<Task> {
+		private final Provider<File> moduleDirectory;
+
+		private DeleteStagedModule(Provider<File> moduleDirectory) {
+			this.moduleDirectory = moduleDirectory;
+		}
+
+		@Override
+		public void execute(Task task) {
+			if (!moduleDirectory.isPresent() || !moduleDirectory.get().isDirectory()) {
+				return;
+			}
+
+			try (Stream<Path> files = Files.walk(moduleDirectory.get().toPath())) {
+				for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+					Files.delete(file);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private static String publishTaskName(String publicationName, String repositoryName) {
+		return "publish" + capitalize(publicationName) + "PublicationTo" + capitalize(repositoryName) + "Repository";
+	}
+
+	private static String stageMetadataFileTaskName(Publication publication) {
+		return "stageMetadataFileFor" + capitalize(publication.getName()) + "Publication";
 	}
 
-	private static <T extends Publication, S extends Task> Action<T> publishTasks(TaskCollection<S> tasks, Action<? super S> action) {
-		return publication -> {
-			tasks.configureEach(named(publishPublicationToAnyRepositories(publication)).whenSatisfied(action));
-		};
+	private static String stageMetadataFileTaskName(Publication publication, String target) {
+		return stageMetadataFileTaskName(publication) + "To" + target;
+	}
+
+	private static List<String> requestedTasks(Project project) {
+		List<String> result = project.getGradle().getStartParameter().getTaskNames();
+		if (result.isEmpty()) {
+			// default tasks of either the invoked project, usually root project, or this project
+			result = new ArrayList<>(project.getRootProject().getDefaultTasks());
+			result.addAll(project.getDefaultTasks());
+		}
+		return result;
 	}
 
 	/*private*/ static abstract /*final*/ class AbstractMultiplatformPublicationAction implements Action<AbstractMultiplatformPublication<? extends Publication>> {
-		private final DependencyFactory factory;
 		private final TaskContainer tasks;
-		private final ResourceHandler resources;
 		private final ProviderFactory providers;
+		private final ProjectLayout layout;
+		private final Provider<PlatformModulesService> platformModules;
+		private final PublishTasksDispatcher<PublishToMavenRepository> publishToMavenRepositoryTasks;
+		private final PublishTasksDispatcher<PublishToMavenLocal> publishToMavenLocalTasks;
+		private final PublishTasksDispatcher<PublishToIvyRepository> publishToIvyRepositoryTasks;
+		private final boolean incremental;
+		private final boolean localPlatformModules;
+		private final RepositoryHandler repositories;
+		private final Provider<Directory> platformManifestsDirectory;
+		private final Provider<ArtifactPathResolver> platformManifests;
 
 		@Inject
-		public AbstractMultiplatformPublicationAction(ObjectFactory objects, TaskContainer tasks, ResourceHandler resources, ProviderFactory providers) {
-			this.factory = objects.newInstance(DependencyFactory.class);
+		public AbstractMultiplatformPublicationAction(TaskContainer tasks, Provider<PlatformModulesService> platformModules, PublishingExtension publishing, ProviderFactory providers, ProjectLayout layout) {
 			this.tasks = tasks;
-			this.resources = resources;
+			this.repositories = publishing.getRepositories();
+			this.layout = layout;
+			this.platformModules = platformModules;
 			this.providers = providers;
+			this.publishToMavenRepositoryTasks = PublishTasksDispatcher.of(tasks.withType(PublishToMavenRepository.class));
+			this.publishToMavenLocalTasks = PublishTasksDispatcher.of(tasks.withType(PublishToMavenLocal.class));
+			this.publishToIvyRepositoryTasks = PublishTasksDispatcher.of(tasks.withType(PublishToIvyRepository.class));
+			this.incremental = providers.gradleProperty(INCREMENTAL_PROPERTY).map(Boolean::parseBoolean).getOrElse(false);
+			this.localPlatformModules = providers.gradleProperty(LOCAL_PLATFORM_MODULES_PROPERTY).map(Boolean::parseBoolean).getOrElse(false);
+			this.platformManifestsDirectory = providers.gradleProperty(PLATFORM_MANIFESTS_PROPERTY).map(layout.getProjectDirectory()::dir);
+			this.platformManifests = platformManifestsDirectory.map(it -> ArtifactPathResolver.forManifests(it.getAsFile().toURI()));
 		}
 
 		@Override
 		public void execute(AbstractMultiplatformPublication<? extends Publication> publication) {
+			// Each platform publication also writes its manifest once published, e.g. to publish the bridge publication from a fan-in build
+			// Publishing to a staging repository doesn't publish the platform publication yet
+			if (platformManifestsDirectory.isPresent()) {
+				publication.getPlatformPublications().whenElementFinalized(platformPublication -> {
+					Provider<RegularFile> moduleMetadataFile = tasks.named(generateMetadataFileTaskName(platformPublication), GenerateModuleMetadata.class).flatMap(GenerateModuleMetadata::getOutputFile);
+					Provider<RegularFile> manifestFile = platformManifestsDirectory.map(it -> it.file(ArtifactPathResolver.manifestFileName(wrap(platformPublication).getGroup(), wrap(platformPublication).getModule(), wrap(platformPublication).getVersion())));
+					publishToMavenRepositoryTasks.configureEach(platformPublication, task -> {
+						task.doLast("", new WritePlatformManifest(moduleMetadataFile, providers.provider(() -> isStagingRepository(task.getRepository()) ? null : manifestFile.get())));
+					});
+					publishToMavenLocalTasks.configureEach(platformPublication, task -> task.doLast("", new WritePlatformManifest(moduleMetadataFile, manifestFile)));
+					publishToIvyRepositoryTasks.configureEach(platformPublication, task -> {
+						task.doLast("", new WritePlatformManifest(moduleMetadataFile, providers.provider(() -> isStagingRepository(task.getRepository()) ? null : manifestFile.get())));
+					});
+				});
+			}
+
+			if (incremental) {
+				// Platform publications are skipped as a whole when all their files are already published identically
+				publication.getPlatformPublications().whenElementFinalized(platformPublication -> {
+					Provider<List<PublishedFile>> files = providers.provider(() -> publishedFiles(platformPublication));
+					if (platformPublication instanceof MavenPublication) {
+						publishToMavenRepositoryTasks.configureEach(platformPublication, task -> {
+							task.usesService(platformModules);
+							task.onlyIf("", notPublishedIdentically(task, files));
+						});
+					} else if (platformPublication instanceof IvyPublication) {
+						publishToIvyRepositoryTasks.configureEach(platformPublication, task -> {
+							task.usesService(platformModules);
+							task.onlyIf("", notPublishedIdentically(task, files));
+						});
+					}
+				});
+			}
+
 			publication.bridgePublication(bridgePublication -> {
+				// Only capture values that can be stored in the configuration cache
+				Provider<List<ModuleCoordinate>> platformCoordinates = providers.provider(() -> {
+					MinimalGMVPublication bridge = wrap(bridgePublication);
+					return publication.getPlatformArtifacts().get().stream().map(it -> new ModuleCoordinate(bridge.getGroup(), it, bridge.getVersion())).collect(Collectors.toList());
+				});
+				Provider<RegularFile> bridgeModuleFile = tasks.named(generateMetadataFileTaskName(bridgePublication), GenerateModuleMetadata.class).flatMap(GenerateModuleMetadata::getOutputFile);
+
+				// The bridge publication publishes the staged metadata
+				TaskProvider<StageBridgeModuleMetadata> stageMetadataTask = tasks.register(stageMetadataFileTaskName(bridgePublication), StageBridgeModuleMetadata.class, task -> {
+					task.setDescription("Stages the Gradle Module Metadata published by publication '" + bridgePublication.getName() + "'.");
+					task.getModuleMetadataFile().set(bridgeModuleFile);
+					if (localPlatformModules) {
+						task.getPlatformModuleMetadataFiles().from((Callable<List<Provider<RegularFile>>>) () -> {
+							return publication.getPlatformPublications().getElements().get().stream().map(it -> tasks.named(generateMetadataFileTaskName(it), GenerateModuleMetadata.class).flatMap(GenerateModuleMetadata::getOutputFile)).collect(Collectors.toList());
+						});
+						task.getOutputs().cacheIf("the bridge publish tasks don't overwrite the staged file", __ -> true);
+					}
+					task.getOutputFile().set(layout.getBuildDirectory().file("publications/" + bridgePublication.getName() + "/bridge-module.json"));
+				});
+				PublicationInternals.setModuleDescriptorGenerator(bridgePublication, stageMetadataTask);
+				Provider<RegularFile> stagedModuleFile = stageMetadataTask.flatMap(StageBridgeModuleMetadata::getOutputFile);
+				Provider<List<PublishedFile>> bridgeFiles = providers.provider(() -> publishedFiles(bridgePublication));
+
+				if (localPlatformModules) {
+					// The staged metadata already contains the platform variants built by this build, nothing to read from the repositories
+					publishToMavenRepositoryTasks.configureEach(bridgePublication, task -> {
+						if (incremental) {
+							task.usesService(platformModules);
+							task.onlyIf("", notPublishedIdentically(task, bridgeFiles));
+						}
+					});
+					publishToIvyRepositoryTasks.configureEach(bridgePublication, task -> {
+						if (incremental) {
+							task.usesService(platformModules);
+							task.onlyIf("", notPublishedIdentically(task, bridgeFiles));
+						}
+					});
+					return;
+				}
+
+				// Each repository stages its own metadata, with the platform variants of the repository, concurrently with the other repositories
+				// The publication has a single module metadata artifact, each publish task copies the metadata of its repository to it right before publishing so they must not overlap
+				List<Task> bridgePublishTasks = new ArrayList<>();
 				if (bridgePublication instanceof MavenPublication) {
-					tasks.withType(PublishToMavenRepository.class).configureEach(publishTasks(bridgePublication, task -> {
-						task.onlyIf("", allPlatformsPublished(publication.getPlatformArtifacts(), providers.provider(task::getPublication).map(MinimalGMVPublication::wrap), providers.provider(task::getRepository).map(ArtifactPathResolver::forMaven)));
-						backup(bridgePublication, task, ignored(() -> {
-							task.doFirst("", ignored(generateBridgeMetadata(publication.getPlatformArtifacts(), providers.provider(task::getPublication).map(MinimalGMVPublication::wrap), providers.provider(task::getRepository).map(ArtifactPathResolver::forMaven))));
-						}));
-					}));
-
-					tasks.withType(PublishToMavenLocal.class).configureEach(publishTasks(bridgePublication, task -> {
-						// We don't skip publishing for MavenLocal as a special case
-						backup(bridgePublication, task, ignored(() -> {
-							task.doFirst("", ignored(generateBridgeMetadata(publication.getPlatformArtifacts(), providers.provider(task::getPublication).map(MinimalGMVPublication::wrap), providers.provider(() -> ProjectBuilder.builder().build().getRepositories().mavenLocal()).map(ArtifactPathResolver::forMaven))));
-						}));
-					}));
+					repositories.withType(MavenArtifactRepository.class).configureEach(repository -> {
+						Provider<ArtifactPathResolver> resolver = platformManifests.orElse(providers.provider(() -> ArtifactPathResolver.forMaven(repository)));
+						registerStageMetadataTask(publication, bridgePublication, repositoryTarget(repository), "repository '" + repository.getName() + "'", platformCoordinates, resolver, bridgeModuleFile).configure(task -> {
+							task.onlyIf("", new AllPlatformsPublished(platformModules, platformCoordinates, resolver));
+						});
+					});
+					publishToMavenRepositoryTasks.configureEach(bridgePublication, task -> {
+						Provider<ArtifactPathResolver> resolver = platformManifests.orElse(providers.provider(() -> ArtifactPathResolver.forMaven(task.getRepository())));
+						task.dependsOn(stageMetadataFileTaskName(bridgePublication, repositoryTarget(task.getRepository())));
+						task.usesService(platformModules);
+						task.onlyIf("", new AllPlatformsPublished(platformModules, platformCoordinates, resolver));
+						task.mustRunAfter(new ArrayList<>(bridgePublishTasks));
+						bridgePublishTasks.add(task);
+						CopyRepositoryBridgeMetadata copyMetadata = new CopyRepositoryBridgeMetadata(stagedRepositoryModuleFile(bridgePublication, repositoryTarget(task.getRepository())), stagedModuleFile);
+						if (incremental) {
+							// The metadata of this repository must be published before comparing it with the published one
+							task.onlyIf("", new BridgeNotPublishedIdentically(copyMetadata, notPublishedIdentically(task, bridgeFiles)));
+						} else {
+							task.doFirst("", copyMetadata);
+						}
+					});
+
+					// We don't skip publishing for MavenLocal as a special case
+					// Maven Local is located at execution time, see MavenLocalRepositoryLocator
+					registerStageMetadataTask(publication, bridgePublication, MAVEN_LOCAL_TARGET, "Maven Local", platformCoordinates, platformManifests.orElse(providers.provider(ArtifactPathResolver::forMavenLocal)), bridgeModuleFile);
+					publishToMavenLocalTasks.configureEach(bridgePublication, task -> {
+						task.dependsOn(stageMetadataFileTaskName(bridgePublication, MAVEN_LOCAL_TARGET));
+						task.mustRunAfter(new ArrayList<>(bridgePublishTasks));
+						bridgePublishTasks.add(task);
+						task.doFirst("", new CopyRepositoryBridgeMetadata(stagedRepositoryModuleFile(bridgePublication, MAVEN_LOCAL_TARGET), stagedModuleFile));
+					});
 				}
 
 				if (bridgePublication instanceof IvyPublication) {
-					tasks.withType(PublishToIvyRepository.class).configureEach(publishTasks(bridgePublication, task -> {
-						task.onlyIf("", allPlatformsPublished(publication.getPlatformArtifacts(), providers.provider(task::getPublication).map(MinimalGMVPublication::wrap), providers.provider(task::getRepository).map(ArtifactPathResolver::forIvy)));
-						backup(bridgePublication, task, ignored(() -> {
-							task.doFirst("", ignored(generateBridgeMetadata(publication.getPlatformArtifacts(), providers.provider(task::getPublication).map(MinimalGMVPublication::wrap), providers.provider(task::getRepository).map(ArtifactPathResolver::forIvy))));
-						}));
-					}));
+					repositories.withType(IvyArtifactRepository.class).configureEach(repository -> {
+						Provider<ArtifactPathResolver> resolver = platformManifests.orElse(providers.provider(() -> ArtifactPathResolver.forIvy(repository)));
+						registerStageMetadataTask(publication, bridgePublication, repositoryTarget(repository), "repository '" + repository.getName() + "'", platformCoordinates, resolver, bridgeModuleFile).configure(task -> {
+							task.onlyIf("", new AllPlatformsPublished(platformModules, platformCoordinates, resolver));
+						});
+					});
+					publishToIvyRepositoryTasks.configureEach(bridgePublication, task -> {
+						Provider<ArtifactPathResolver> resolver = platformManifests.orElse(providers.provider(() -> ArtifactPathResolver.forIvy(task.getRepository())));
+						task.dependsOn(stageMetadataFileTaskName(bridgePublication, repositoryTarget(task.getRepository())));
+						task.usesService(platformModules);
+						task.onlyIf("", new AllPlatformsPublished(platformModules, platformCoordinates, resolver));
+						task.mustRunAfter(new ArrayList<>(bridgePublishTasks));
+						bridgePublishTasks.add(task);
+						CopyRepositoryBridgeMetadata copyMetadata = new CopyRepositoryBridgeMetadata(stagedRepositoryModuleFile(bridgePublication, repositoryTarget(task.getRepository())), stagedModuleFile);
+						if (incremental) {
+							// The metadata of this repository must be published before comparing it with the published one
+							task.onlyIf("", new BridgeNotPublishedIdentically(copyMetadata, notPublishedIdentically(task, bridgeFiles)));
+						} else {
+							task.doFirst("", copyMetadata);
+						}
+					});
 				}
 			});
 		}
 
-		private Spec<Task> allPlatformsPublished(Provider<Set<String>> platformNames, Provider<MinimalGMVPublication> platformPublication, Provider<ArtifactPathResolver> resolver) {
-			return task -> {
-				String groupId = platformPublication.get().getGroup();
-				String version = platformPublication.get().getVersion();
-				List<ExternalModuleDependency> variants = platformNames.get().stream().map(it -> factory.create(groupId + ":" + it + ":" + version)).collect(Collectors.toList());
+		// Generates the bridge metadata with the platform variants published to the target, after the platform publications are published to it
+		private TaskProvider<Task> registerStageMetadataTask(AbstractMultiplatformPublication<? extends Publication> publication, Publication bridgePublication, String target, String targetDisplayName, Provider<List<ModuleCoordinate>> platformCoordinates, Provider<ArtifactPathResolver> resolver, Provider<RegularFile> bridgeModuleFile) {
+			Provider<RegularFile> outputFile = stagedRepositoryModuleFile(bridgePublication, target);
+			return tasks.register(stageMetadataFileTaskName(bridgePublication, target), task -> {
+				task.setDescription("Stages the Gradle Module Metadata published by publication '" + bridgePublication.getName() + "' to " + targetDisplayName + ".");
+				task.getInputs().file(bridgeModuleFile).withPathSensitivity(PathSensitivity.NONE);
+				task.getOutputs().file(outputFile);
+				task.getOutputs().upToDateWhen(__ -> false); // the platform modules are read from the repository
+				task.mustRunAfter((Callable<?>) () -> {
+					return publication.getPlatformPublications().getElements().get().stream().map(it -> "publish" + capitalize(it.getName()) + "PublicationTo" + target).collect(Collectors.toList());
+				});
+				task.usesService(platformModules);
+				task.doLast("", new GenerateBridgeMetadata(platformModules, platformCoordinates, resolver, bridgeModuleFile, outputFile));
+			});
+		}
 
-				boolean result = true;
-				for (ExternalModuleDependency variant : variants) {
-					try {
-						resources.getText().fromUri(resolver.get().resolve(variant)).asString();
-					} catch (MissingResourceException ex) {
-						LOGGER.warn(String.format("Warning: Publication with coordinate '%s:%s:%s' not published.", variant.getGroup(), variant.getName(), variant.getVersion()));
-						result = false;
-					}
+		private Provider<RegularFile> stagedRepositoryModuleFile(Publication bridgePublication, String target) {
+			return layout.getBuildDirectory().file("publications/" + bridgePublication.getName() + "/" + uncapitalize(target) + "/bridge-module.json");
+		}
+
+		// Publish tasks target either a repository, i.e. publish<Publication>PublicationTo<Repository>Repository, or Maven Local
+		private static String repositoryTarget(ArtifactRepository repository) {
+			return capitalize(repository.getName()) + "Repository";
+		}
+
+		private NotPublishedIdentically notPublishedIdentically(PublishToMavenRepository task, Provider<List<PublishedFile>> files) {
+			return notPublishedIdentically(files, () -> task.getRepository().getUrl(), task::getRepository);
+		}
+
+		private NotPublishedIdentically notPublishedIdentically(PublishToIvyRepository task, Provider<List<PublishedFile>> files) {
+			return notPublishedIdentically(files, () -> task.getRepository().getUrl(), task::getRepository);
+		}
+
+		private <T extends ArtifactRepository & AuthenticationSupported> NotPublishedIdentically notPublishedIdentically(Provider<List<PublishedFile>> files, Callable<URI> repositoryUrl, Callable<T> repository) {
+			// Staging repositories are always published to, the publish tasks clear them first and the upload tasks skip the identical files
+			Provider<List<PublishedFile>> checkedFiles = providers.provider(repository).flatMap(it -> isStagingRepository(it) ? providers.provider(Collections::<PublishedFile>emptyList) : files);
+			return new NotPublishedIdentically(platformModules, checkedFiles, providers.provider(repositoryUrl), credential(repository, PasswordCredentials::getUsername), credential(repository, PasswordCredentials::getPassword));
+		}
+
+		private static boolean isStagingRepository(ArtifactRepository repository) {
+			return repository.getName().equals(MAVEN_STAGING_REPOSITORY_NAME) || repository.getName().equals(IVY_STAGING_REPOSITORY_NAME);
+		}
+
+		// the repository's own credentials, without supported credentials the files are probed unauthenticated and published when the probe fails
+		// and the platform modules are read unauthenticated
+		private Provider<String> credential(Callable<? extends AuthenticationSupported> repository, Transformer<String, PasswordCredentials> property) {
+			return providers.provider(repository).map(AbstractMultiplatformPublicationAction::credentialsOf).map(property);
+		}
+
+		private static PasswordCredentials credentialsOf(AuthenticationSupported repository) {
+			try {
+				return RepositoryCredentials.of(repository);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+
+		// Files published by the publication relative to the repository, Ivy repositories are expected to use the Gradle layout
+		private static List<PublishedFile> publishedFiles(Publication publication) {
+			MinimalGMVPublication coordinate = wrap(publication);
+			if (publication instanceof MavenPublication && coordinate.getVersion().endsWith("-SNAPSHOT")) {
+				return Collections.emptyList(); // timestamped files are never published identically
+			}
+
+			String directory = (publication instanceof MavenPublication ? coordinate.getGroup().replace('.', '/') : coordinate.getGroup()) + "/" + coordinate.getModule() + "/" + coordinate.getVersion() + "/";
+			List<PublishedFile> result = new ArrayList<>();
+			for (PublicationArtifact artifact : PublicationInternals.getPublishableArtifacts(publication)) {
+				String baseName;
+				String classifier;
+				String extension;
+				if (artifact instanceof MavenArtifact) {
+					baseName = coordinate.getModule();
+					classifier = ((MavenArtifact) artifact).getClassifier();
+					extension = ((MavenArtifact) artifact).getExtension();
+				} else {
+					baseName = ((IvyArtifact) artifact).getName();
+					classifier = ((IvyArtifact) artifact).getClassifier();
+					extension = ((IvyArtifact) artifact).getExtension();
 				}
-				return result;
-			};
+
+				if (extension.endsWith(".asc") || extension.endsWith(".sig")) {
+					continue; // signatures aren't reproducible, they are only compared through the signed file
+				}
+				String fileName = baseName + "-" + coordinate.getVersion() + (classifier == null || classifier.isEmpty() ? "" : "-" + classifier) + (extension.isEmpty() ? "" : "." + extension);
+				result.add(new PublishedFile(directory + fileName, artifact.getFile()));
+			}
+			return result;
 		}
 
-		private void backup(Publication bridgePublication, Task task, Action<? super Task> action) {
-			action.execute(task);
+		private static final class NotPublishedIdentically implements Spec<Task> {
+			private final Provider<PlatformModulesService> platformModules;
+			private final Provider<List<PublishedFile>> files;
+			private final Provider<URI> repositoryUrl;
+			private final Provider<String> username;
+			private final Provider<String> password;
+
+			private NotPublishedIdentically(Provider<PlatformModulesService> platformModules, Provider<List<PublishedFile>> files, Provider<URI> repositoryUrl, Provider<String> username, Provider<String> password) {
+				this.platformModules = platformModules;
+				this.files = files;
+				this.repositoryUrl = repositoryUrl;
+				this.username = username;
+				this.password = password;
+			}
 
-			NamedDomainObjectProvider<GenerateModuleMetadata> moduleMetadataTask = tasks.named(generateMetadataFileTaskName(bridgePublication), GenerateModuleMetadata.class);
-			task.doFirst("", ignored(new Runnable() {
-				@Override
-				public void run() {
-					GenerateModuleMetadata task = moduleMetadataTask.get();
-					Path moduleFile = task.getOutputFile().get().getAsFile().toPath();
-					try {
-						Files.copy(moduleFile, moduleFile.getParent().resolve(moduleFile.getFileName() + ".orig"), StandardCopyOption.REPLACE_EXISTING);
-					} catch (IOException e) {
-						throw new UncheckedIOException(e);
-					}
+			@Override
+			public boolean isSatisfiedBy(Task task) {
+				List<PublishedFile> publishedFiles = files.get();
+				if (publishedFiles.isEmpty()) {
+					return true;
 				}
-			}));
-			task.doLast("", ignored(new Runnable() {
-				@Override
-				public void run() {
-					GenerateModuleMetadata metadataTask = moduleMetadataTask.get();
-					Path out = metadataTask.getOutputFile().get().getAsFile().toPath();
-					try {
-						Files.copy(out.getParent().resolve(out.getFileName() + ".orig"), out, StandardCopyOption.REPLACE_EXISTING);
-					} catch (IOException e) {
-						throw new UncheckedIOException(e);
+
+				RepositoryTransport transport;
+				try {
+					transport = new RepositoryTransport(repositoryUrl.get(), username.getOrNull(), password.getOrNull());
+				} catch (UnsupportedOperationException ex) {
+					return true; // let Gradle publish to other transports
+				}
+
+				PlatformModulesService service = platformModules.get();
+				List<PublishedFile> changedFiles = service.filter(publishedFiles, file -> !Checksums.isPublishedIdentically(transport, file.getPath(), file.getFile().toPath()));
+				if (changedFiles.isEmpty()) {
+					for (PublishedFile file : publishedFiles) {
+						service.getStatistics().skipped(file.getFile().length());
 					}
+					LOGGER.lifecycle(String.format("Publication files of '%s' are already published identically, skipping.", task.getPath()));
+					return false;
 				}
-			}));
+				return true;
+			}
+		}
+
+		private static final class BridgeNotPublishedIdentically implements Spec<Task> {
+			private final CopyRepositoryBridgeMetadata copyMetadata;
+			private final NotPublishedIdentically notPublishedIdentically;
+
+			private BridgeNotPublishedIdentically(CopyRepositoryBridgeMetadata copyMetadata, NotPublishedIdentically notPublishedIdentically) {
+				this.copyMetadata = copyMetadata;
+				this.notPublishedIdentically = notPublishedIdentically;
+			}
+
+			@Override
+			public boolean isSatisfiedBy(Task task) {
+				copyMetadata.execute(task);
+				return notPublishedIdentically.isSatisfiedBy(task);
+			}
 		}
 
-		private Runnable generateBridgeMetadata(Provider<Set<String>> platformNames, Provider<MinimalGMVPublication> platformPublication, Provider<ArtifactPathResolver> resolver) {
-			return new Runnable() {
-				@Override
-				public void run() {
-					String groupId = platformPublication.get().getGroup();
-					String version = platformPublication.get().getVersion();
-					List<ExternalModuleDependency> variants = platformNames.get().stream().map(it -> factory.create(groupId + ":" + it + ":" + version)).collect(Collectors.toList());
+		private static final class PublishedFile {
+			private final String path;
+			private final File file;
+
+			private PublishedFile(String path, File file) {
+				this.path = path;
+				this.file = file;
+			}
 
-					File moduleFile = tasks.named(generateMetadataFileTaskName(platformPublication.get().delegate()), GenerateModuleMetadata.class).get().getOutputFile().get().getAsFile();
-					@SuppressWarnings("unchecked")
-					Map<String, Object> origRoot = (Map<String, Object>) new JsonSlurper().parse(moduleFile);
-					@SuppressWarnings("unchecked")
-					List<Object> vars = (List<Object>) origRoot.get("variants");
+			public String getPath() {
+				return path;
+			}
 
-					for (ExternalModuleDependency variant : variants) {
+			public File getFile() {
+				return file;
+			}
+		}
+
+		private static final class AllPlatformsPublished implements Spec<Task> {
+			private final Provider<PlatformModulesService> platformModules;
+			private final Provider<List<ModuleCoordinate>> platformCoordinates;
+			private final Provider<ArtifactPathResolver> resolver;
+
+			private AllPlatformsPublished(Provider<PlatformModulesService> platformModules, Provider<List<ModuleCoordinate>> platformCoordinates, Provider<ArtifactPathResolver> resolver) {
+				this.platformModules = platformModules;
+				this.platformCoordinates = platformCoordinates;
+				this.resolver = resolver;
+			}
+
+			@Override
+			public boolean isSatisfiedBy(Task task) {
+				ArtifactPathResolver pathResolver = resolver.get();
+				List<ModuleCoordinate> missingVariants = platformModules.get().filter(platformCoordinates.get(), variant -> !platformModules.get().exists(pathResolver.resolve(variant), pathResolver.getUsername(), pathResolver.getPassword()));
+				for (ModuleCoordinate variant : missingVariants) {
+					LOGGER.warn(String.format("Warning: Publication with coordinate '%s:%s:%s' not published.", variant.getGroup(), variant.getName(), variant.getVersion()));
+				}
+				return missingVariants.isEmpty();
+			}
+		}
+
+		private static final class CopyRepositoryBridgeMetadata implements Action<Task> {
+			private final Provider<RegularFile> repositoryModuleFile;
+			private final Provider<RegularFile> stagedModuleFile;
+
+			private CopyRepositoryBridgeMetadata(Provider<RegularFile> repositoryModuleFile, Provider<RegularFile> stagedModuleFile) {
+				this.repositoryModuleFile = repositoryModuleFile;
+				this.stagedModuleFile = stagedModuleFile;
+			}
+
+			@Override
+			public void execute(Task task) {
+				try {
+					Files.copy(repositoryModuleFile.get().getAsFile().toPath(), stagedModuleFile.get().getAsFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+
+		private static final class GenerateBridgeMetadata implements Action<Task> {
+			private final Provider<PlatformModulesService> platformModules;
+			private final Provider<List<ModuleCoordinate>> platformCoordinates;
+			private final Provider<ArtifactPathResolver> resolver;
+			private final Provider<RegularFile> bridgeModuleFile;
+			private final Provider<RegularFile> stagedModuleFile;
+
+			private GenerateBridgeMetadata(Provider<PlatformModulesService> platformModules, Provider<List<ModuleCoordinate>> platformCoordinates, Provider<ArtifactPathResolver> resolver, Provider<RegularFile> bridgeModuleFile, Provider<RegularFile> stagedModuleFile) {
+				this.platformModules = platformModules;
+				this.platformCoordinates = platformCoordinates;
+				this.resolver = resolver;
+				this.bridgeModuleFile = bridgeModuleFile;
+				this.stagedModuleFile = stagedModuleFile;
+			}
+
+			@Override
+			public void execute(Task task) {
+				ArtifactPathResolver pathResolver = resolver.get();
+				PublishingStatistics statistics = platformModules.get().getStatistics();
+				try {
+					BridgeModuleMetadataMerger merger = new BridgeModuleMetadataMerger(new String(Files.readAllBytes(bridgeModuleFile.get().getAsFile().toPath()), StandardCharsets.UTF_8));
+					long mergeDuration = 0;
+					int mergedVariants = 0;
+					for (ModuleCoordinate variant : platformCoordinates.get()) {
 						try {
-							URI l = resolver.get().resolve(variant);
-							@SuppressWarnings("unchecked")
-							Map<String, Object> root = (Map<String, Object>) new JsonSlurper().parse(resources.getText().fromUri(l).asReader());
-							@SuppressWarnings("unchecked")
-							List<Map<String, Object>> var = (List<Map<String, Object>>) root.get("variants");
-							for (Map<String, Object> v : var) {
-								Map<String, Object> vv = new LinkedHashMap<>(v);
-								vv.remove("dependencies");
-								vv.remove("files");
-								vv.put("available-at", new LinkedHashMap<String, Object>() {{
-									put("url", "../../" + variant.getName() + "/" + variant.getVersion());
-									put("group", variant.getGroup());
-									put("module", variant.getName());
-									put("version", variant.getVersion());
-								}});
-								vars.add(vv);
-							}
+							String platformModule = platformModules.get().fetch(pathResolver.resolve(variant), pathResolver.getUsername(), pathResolver.getPassword());
+							long startTime = System.nanoTime();
+							mergedVariants += merger.addRemoteVariants(variant.getGroup(), variant.getName(), variant.getVersion(), platformModule);
+							mergeDuration += System.nanoTime() - startTime;
 						} catch (MissingResourceException ex) {
 							LOGGER.warn(String.format("Warning: Publication with coordinate '%s:%s:%s' not found in '...'.", variant.getGroup(), variant.getName(), variant.getVersion()));
 						}
 					}
+					statistics.merged(mergeDuration, mergedVariants);
 
-					try (Writer writer = Files.newBufferedWriter(moduleFile.toPath())) {
-						new JsonBuilder(origRoot).writeTo(writer);
-					} catch (IOException e) {
-						throw new UncheckedIOException(e);
-					}
+					long startTime = System.nanoTime();
+					merger.writeTo(Files.newBufferedWriter(stagedModuleFile.get().getAsFile().toPath()));
+					statistics.written(System.nanoTime() - startTime);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
 				}
-			};
+			}
+		}
+
+		private static final class ModuleCoordinate {
+			private final String group;
+			private final String name;
+			private final String version;
+
+			private ModuleCoordinate(String group, String name, String version) {
+				this.group = group;
+				this.name = name;
+				this.version = version;
+			}
+
+			public String getGroup() {
+				return group;
+			}
+
+			public String getName() {
+				return name;
+			}
+
+			public String getVersion() {
+				return version;
+			}
 		}
 
-		private interface ArtifactPathResolver {
-			URI resolve(ExternalModuleDependency dependency);
+		private static abstract class ArtifactPathResolver {
+			public abstract URI resolve(ModuleCoordinate module);
+
+			public String getUsername() {
+				return null;
+			}
+
+			public String getPassword() {
+				return null;
+			}
 
 			static ArtifactPathResolver forMaven(MavenArtifactRepository repository) {
-				return new ArtifactPathResolver() {
-					@Override
-					public URI resolve(ExternalModuleDependency dependency) {
-						return repository.getUrl().resolve(dependency.getGroup().replace(".", "/") + "/" + dependency.getName() + "/" + dependency.getVersion() + "/" + dependency.getName() + "-" + dependency.getVersion() + ".module");
-					}
-				};
+				PasswordCredentials credentials = credentialsOf(repository);
+				return new MavenPathResolver(repository.getUrl(), credentials == null ? null : credentials.getUsername(), credentials == null ? null : credentials.getPassword());
+			}
+
+			static ArtifactPathResolver forMavenLocal() {
+				return new MavenLocalPathResolver();
 			}
 
 			static ArtifactPathResolver forIvy(IvyArtifactRepository repository) {
-				return new ArtifactPathResolver() {
-					@Override
-					public URI resolve(ExternalModuleDependency dependency) {
-						return repository.getUrl().resolve(dependency.getGroup() + "/" + dependency.getName() + "/" + dependency.getVersion() + "/" + dependency.getName() + "-" + dependency.getVersion() + ".module");
-					}
-				};
+				PasswordCredentials credentials = credentialsOf(repository);
+				return new IvyPathResolver(repository.getUrl(), credentials == null ? null : credentials.getUsername(), credentials == null ? null : credentials.getPassword());
+			}
+
+			static ArtifactPathResolver forManifests(URI manifestsDirectory) {
+				return new ManifestPathResolver(manifestsDirectory);
+			}
+
+			static String manifestFileName(String group, String module, String version) {
+				return group + "/" + module + "-" + version + ".json";
+			}
+		}
+
+		private static abstract class RepositoryPathResolver extends ArtifactPathResolver {
+			private final String username;
+			private final String password;
+
+			protected RepositoryPathResolver(String username, String password) {
+				this.username = username;
+				this.password = password;
+			}
+
+			@Override
+			public String getUsername() {
+				return username;
+			}
+
+			@Override
+			public String getPassword() {
+				return password;
+			}
+		}
+
+		private static final class MavenPathResolver extends RepositoryPathResolver {
+			private final URI repositoryUrl;
+
+			private MavenPathResolver(URI repositoryUrl, String username, String password) {
+				super(username, password);
+				this.repositoryUrl = repositoryUrl;
+			}
+
+			@Override
+			public URI resolve(ModuleCoordinate module) {
+				return repositoryUrl.resolve(module.getGroup().replace(".", "/") + "/" + module.getName() + "/" + module.getVersion() + "/" + module.getName() + "-" + module.getVersion() + ".module");
+			}
+		}
+
+		private static final class MavenLocalPathResolver extends ArtifactPathResolver {
+			private transient MavenPathResolver delegate;
+
+			@Override
+			public URI resolve(ModuleCoordinate module) {
+				if (delegate == null) {
+					delegate = new MavenPathResolver(MavenLocalRepositoryLocator.system().locateUrl(), null, null);
+				}
+				return delegate.resolve(module);
+			}
+		}
+
+		private static final class IvyPathResolver extends RepositoryPathResolver {
+			private final URI repositoryUrl;
+
+			private IvyPathResolver(URI repositoryUrl, String username, String password) {
+				super(username, password);
+				this.repositoryUrl = repositoryUrl;
+			}
+
+			@Override
+			public URI resolve(ModuleCoordinate module) {
+				return repositoryUrl.resolve(module.getGroup() + "/" + module.getName() + "/" + module.getVersion() + "/" + module.getName() + "-" + module.getVersion() + ".module");
+			}
+		}
+
+		// Platform manifests collected in a single directory, the platform modules are trusted to be published when their manifest exists
+		private static final class ManifestPathResolver extends ArtifactPathResolver {
+			private final URI manifestsDirectory;
+
+			private ManifestPathResolver(URI manifestsDirectory) {
+				this.manifestsDirectory = manifestsDirectory.getPath().endsWith("/") ? manifestsDirectory : URI.create(manifestsDirectory + "/");
+			}
+
+			@Override
+			public URI resolve(ModuleCoordinate module) {
+				return manifestsDirectory.resolve(manifestFileName(module.getGroup(), module.getName(), module.getVersion()));
 			}
 		}
 	}
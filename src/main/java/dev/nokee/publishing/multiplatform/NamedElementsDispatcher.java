@@ -0,0 +1,69 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.Action;
+import org.gradle.api.NamedDomainObjectCollection;
+import org.gradle.api.Namer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches the configuration of the elements of a collection to the actions registered for their name.
+ * A single {@literal configureEach} is registered on the collection and shared by all views,
+ * so each element is only visited by the actions of the view owning it.
+ *
+ * @param <T>  the element type
+ */
+final class NamedElementsDispatcher<T> implements Action<T> {
+	private final Namer<? super T> namer;
+	private final Map<String, List<Action<? super T>>> actions = new HashMap<>();
+	private final Map<String, T> knownElements = new HashMap<>();
+
+	private NamedElementsDispatcher(Namer<? super T> namer) {
+		this.namer = namer;
+	}
+
+	/**
+	 * Creates a dispatcher for the specified collection.
+	 *
+	 * @param collection  the elements to dispatch
+	 * @param namer  the namer of the elements
+	 * @return a new dispatcher
+	 * @param <T>  the element type
+	 */
+	public static <T> NamedElementsDispatcher<T> of(NamedDomainObjectCollection<T> collection, Namer<? super T> namer) {
+		NamedElementsDispatcher<T> result = new NamedElementsDispatcher<>(namer);
+		collection.configureEach(result);
+		return result;
+	}
+
+	/**
+	 * Configures the element of the specified name when it is realized.
+	 * An element already realized is configured immediately.
+	 *
+	 * @param name  the element name to match
+	 * @param action  the configure action
+	 */
+	public void configure(String name, Action<? super T> action) {
+		actions.computeIfAbsent(name, __ -> new ArrayList<>()).add(action);
+		T element = knownElements.get(name);
+		if (element != null) {
+			action.execute(element);
+		}
+	}
+
+	@Override
+	public void execute(T element) {
+		String name = namer.determineName(element);
+		knownElements.put(name, element);
+		List<Action<? super T>> elementActions = actions.get(name);
+		if (elementActions != null) {
+			// copy as actions may register more actions
+			for (Action<? super T> action : new ArrayList<>(elementActions)) {
+				action.execute(element);
+			}
+		}
+	}
+}
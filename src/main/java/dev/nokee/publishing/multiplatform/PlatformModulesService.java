@@ -0,0 +1,297 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.Action;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.resources.MissingResourceException;
+import org.gradle.api.resources.ResourceException;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.specs.Spec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Build-scoped service accessing the platform modules published in remote repositories.
+ * Remote requests are executed concurrently with a bounded number of threads shared by all multiplatform publications of the build.
+ * The platform modules found are cached by location and credentials so each one is fetched at most once per build.
+ * Existence checks use a lightweight probe ({@literal HEAD} request or file check) when the transport allows it.
+ * HTTP(S) requests authenticate with basic authentication when a username is provided.
+ * The publishing statistics of the build are written to the report file when the service is closed.
+ */
+/*private*/ abstract /*final*/ class PlatformModulesService implements BuildService<PlatformModulesService.Parameters>, AutoCloseable {
+	static final String NAME = "multiplatformPublishingPlatformModules";
+	static final String MAX_CONCURRENT_REQUESTS_PROPERTY = "dev.nokee.multiplatform-publishing.max-concurrent-requests";
+	static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+	private static final int TIMEOUT_MILLIS = 30_000;
+	private final Map<ModuleKey, String> modules = new ConcurrentHashMap<>();
+	private final Set<ModuleKey> existingModules = ConcurrentHashMap.newKeySet();
+	private final PublishingStatistics statistics = new PublishingStatistics();
+	private ExecutorService executor;
+
+	interface Parameters extends BuildServiceParameters {
+		/**
+		 * {@return the maximum number of concurrent remote requests}
+		 */
+		Property<Integer> getMaxConcurrentRequests();
+
+		/**
+		 * {@return the publishing statistics report file}
+		 */
+		RegularFileProperty getReportFile();
+	}
+
+	static int parseMaxConcurrentRequests(String value) {
+		int result;
+		try {
+			result = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			result = 0;
+		}
+		if (result < 1) {
+			throw new IllegalArgumentException(String.format("Invalid value '%s' for Gradle property '%s', expected a positive integer.", value, MAX_CONCURRENT_REQUESTS_PROPERTY));
+		}
+		return result;
+	}
+
+	public PublishingStatistics getStatistics() {
+		return statistics;
+	}
+
+	// Keeps the iteration order of the elements
+	public <T> List<T> filter(List<T> elements, Spec<? super T> spec) {
+		List<Boolean> satisfied = invokeAll(elements, spec::isSatisfiedBy);
+		List<T> result = new ArrayList<>(elements.size());
+		for (int i = 0; i < elements.size(); ++i) {
+			if (satisfied.get(i)) {
+				result.add(elements.get(i));
+			}
+		}
+		return result;
+	}
+
+	public <T> void forEach(List<T> elements, Action<? super T> action) {
+		invokeAll(elements, it -> {
+			action.execute(it);
+			return null;
+		});
+	}
+
+	private <T, R> List<R> invokeAll(List<T> elements, Function<? super T, R> function) {
+		List<R> result = new ArrayList<>(elements.size());
+		if (elements.size() <= 1) {
+			for (T element : elements) {
+				result.add(function.apply(element));
+			}
+			return result;
+		}
+
+		List<Future<R>> futures = new ArrayList<>(elements.size());
+		for (T element : elements) {
+			futures.add(executor().submit(() -> function.apply(element)));
+		}
+
+		try {
+			for (Future<R> future : futures) {
+				result.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} finally {
+			futures.forEach(it -> it.cancel(true));
+		}
+		return result;
+	}
+
+	// Only found modules are cached, a missing module is fetched again on the next request as it may be published later in the build
+	public String fetch(URI location, String username, String password) throws MissingResourceException {
+		ModuleKey key = new ModuleKey(location, RepositoryTransport.authorization(username, password));
+		String result = modules.get(key);
+		if (result == null) {
+			long startTime = System.nanoTime();
+			result = load(location, key.authorization);
+			statistics.fetched(System.nanoTime() - startTime, result.getBytes(StandardCharsets.UTF_8).length);
+			modules.putIfAbsent(key, result);
+		}
+		return result;
+	}
+
+	// Probes the module without downloading it when the transport allows it, otherwise fetches it
+	public boolean exists(URI location, String username, String password) {
+		ModuleKey key = new ModuleKey(location, RepositoryTransport.authorization(username, password));
+		if (existingModules.contains(key) || modules.containsKey(key)) {
+			return true;
+		}
+
+		long startTime = System.nanoTime();
+		ProbeResult probeResult = probe(location, key.authorization);
+		statistics.probed(System.nanoTime() - startTime);
+		switch (probeResult) {
+			case FOUND:
+				existingModules.add(key);
+				return true;
+			case MISSING:
+				return false;
+			default:
+				try {
+					fetch(location, username, password);
+					return true;
+				} catch (MissingResourceException ex) {
+					return false;
+				}
+		}
+	}
+
+	private static ProbeResult probe(URI location, String authorization) {
+		if ("file".equals(location.getScheme())) {
+			return Files.exists(Paths.get(location)) ? ProbeResult.FOUND : ProbeResult.MISSING;
+		} else if ("http".equals(location.getScheme()) || "https".equals(location.getScheme())) {
+			HttpURLConnection connection = null;
+			try {
+				URLConnection urlConnection = location.toURL().openConnection();
+				if (!(urlConnection instanceof HttpURLConnection)) {
+					return ProbeResult.UNKNOWN;
+				}
+				connection = (HttpURLConnection) urlConnection;
+				connection.setRequestMethod("HEAD");
+				connection.setConnectTimeout(TIMEOUT_MILLIS);
+				connection.setReadTimeout(TIMEOUT_MILLIS);
+				if (authorization != null) {
+					connection.setRequestProperty("Authorization", authorization);
+				}
+				int responseCode = connection.getResponseCode();
+				if (responseCode >= 200 && responseCode < 300) {
+					return ProbeResult.FOUND;
+				} else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND || responseCode == HttpURLConnection.HTTP_GONE) {
+					return ProbeResult.MISSING;
+				}
+				return ProbeResult.UNKNOWN; // e.g. HEAD not allowed or authentication required
+			} catch (IOException e) {
+				return ProbeResult.UNKNOWN; // let the fetch report the failure
+			} finally {
+				if (connection != null) {
+					connection.disconnect();
+				}
+			}
+		}
+		return ProbeResult.UNKNOWN;
+	}
+
+	// Visible for testing
+	String load(URI location, String authorization) throws MissingResourceException {
+		try {
+			URLConnection connection = location.toURL().openConnection();
+			connection.setConnectTimeout(TIMEOUT_MILLIS);
+			connection.setReadTimeout(TIMEOUT_MILLIS);
+			if (connection instanceof HttpURLConnection) {
+				if (authorization != null) {
+					connection.setRequestProperty("Authorization", authorization);
+				}
+				int responseCode = ((HttpURLConnection) connection).getResponseCode();
+				if (responseCode == HttpURLConnection.HTTP_NOT_FOUND || responseCode == HttpURLConnection.HTTP_GONE) {
+					throw new MissingResourceException(location, String.format("Could not read '%s' as it does not exist.", location));
+				} else if (responseCode < 200 || responseCode >= 300) {
+					throw new ResourceException(location, String.format("Could not get resource '%s', received status code %d from server.", location, responseCode));
+				}
+			}
+
+			try (InputStream inStream = connection.getInputStream()) {
+				ByteArrayOutputStream result = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int length;
+				while ((length = inStream.read(buffer)) != -1) {
+					result.write(buffer, 0, length);
+				}
+				return new String(result.toByteArray(), StandardCharsets.UTF_8);
+			}
+		} catch (FileNotFoundException | NoSuchFileException e) {
+			throw new MissingResourceException(location, String.format("Could not read '%s' as it does not exist.", location), e);
+		} catch (IOException e) {
+			throw new ResourceException(location, String.format("Could not get resource '%s'.", location), e);
+		}
+	}
+
+	private enum ProbeResult {
+		FOUND, MISSING, UNKNOWN
+	}
+
+	// Repositories sharing a location may use different credentials, a module found with some credentials may not be readable with others
+	private static final class ModuleKey {
+		private final URI location;
+		private final String authorization;
+
+		private ModuleKey(URI location, String authorization) {
+			this.location = location;
+			this.authorization = authorization;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (!(obj instanceof ModuleKey)) return false;
+
+			ModuleKey other = (ModuleKey) obj;
+			return location.equals(other.location) && Objects.equals(authorization, other.authorization);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(location, authorization);
+		}
+	}
+
+	// Visible for testing
+	int maxConcurrentRequests() {
+		return getParameters().getMaxConcurrentRequests().get();
+	}
+
+	private synchronized ExecutorService executor() {
+		if (executor == null) {
+			AtomicInteger threadCount = new AtomicInteger();
+			executor = Executors.newFixedThreadPool(maxConcurrentRequests(), runnable -> {
+				Thread result = new Thread(runnable, "multiplatform-publishing-" + threadCount.incrementAndGet());
+				result.setDaemon(true);
+				return result;
+			});
+		}
+		return executor;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		if (!statistics.isEmpty()) {
+			statistics.writeTo(getParameters().getReportFile().get().getAsFile().toPath());
+		}
+	}
+}
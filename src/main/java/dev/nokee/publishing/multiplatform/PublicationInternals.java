@@ -0,0 +1,104 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.repositories.AuthenticationSupported;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.Publication;
+import org.gradle.api.publish.PublicationArtifact;
+import org.gradle.api.publish.internal.PublicationInternal;
+import org.gradle.api.publish.ivy.internal.publication.IvyPublicationInternal;
+import org.gradle.api.publish.maven.internal.publication.MavenPublicationInternal;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.util.GradleVersion;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * The only access to Gradle's internal publishing API, the public API has no equivalent for:
+ * <ul>
+ *   <li>{@link #setAlias(Publication)}: platform publications are published with their own coordinate,
+ *   Gradle refuses project dependencies on a project with multiple non-alias publications of different coordinates.</li>
+ *   <li>{@link #setModuleDescriptorGenerator(Publication, TaskProvider)}: the bridge publication publishes the staged module metadata,
+ *   the public API can only add artifacts, not replace the module metadata artifact.</li>
+ *   <li>{@link #getPublishableArtifacts(Publication)}: incremental publishing compares each file the publish task uploads,
+ *   the public artifact sets exclude the POM/Ivy descriptor, the module metadata and the signatures.</li>
+ *   <li>{@link #usesCredentials(AuthenticationSupported)}: staged uploads authenticate with the repository's credentials,
+ *   the public {@link AuthenticationSupported#getCredentials()} assigns empty credentials to a repository without any, which fails its publish tasks.</li>
+ * </ul>
+ * The Maven and Ivy functional tests publish through each of them with multiple Gradle versions, see {@code GradleInternalsCrossVersionTests}.
+ * An incompatible Gradle version fails with a clear message instead of a linkage error.
+ */
+final class PublicationInternals {
+	private PublicationInternals() {}
+
+	/**
+	 * Marks the specified publication as an alias of the project's main publication.
+	 *
+	 * @param publication  the publication to mark
+	 */
+	public static void setAlias(Publication publication) {
+		compatible(() -> {
+			((PublicationInternal<?>) publication).setAlias(true);
+			return null;
+		});
+	}
+
+	/**
+	 * Publishes the output file of the specified task as the module metadata of the specified publication.
+	 *
+	 * @param publication  the Maven or Ivy publication
+	 * @param generatorTask  the task generating the module metadata file
+	 */
+	public static void setModuleDescriptorGenerator(Publication publication, TaskProvider<? extends Task> generatorTask) {
+		compatible(() -> {
+			if (publication instanceof MavenPublicationInternal) {
+				((MavenPublicationInternal) publication).setModuleDescriptorGenerator(generatorTask);
+			} else if (publication instanceof IvyPublicationInternal) {
+				((IvyPublicationInternal) publication).setModuleDescriptorGenerator(generatorTask);
+			} else {
+				throw new UnsupportedOperationException();
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * {@return every artifact published by the specified publication, including descriptors and signatures}
+	 *
+	 * @param publication  the publication
+	 */
+	public static Iterable<? extends PublicationArtifact> getPublishableArtifacts(Publication publication) {
+		return compatible(() -> ((PublicationInternal<?>) publication).getPublishableArtifacts());
+	}
+
+	/**
+	 * {@return true if credentials are configured on the specified repository, without assigning any}
+	 * The method moved between Gradle's internal packages, it is looked up by name on the repository implementation.
+	 *
+	 * @param repository  the Maven or Ivy repository
+	 */
+	public static boolean usesCredentials(AuthenticationSupported repository) {
+		return compatible(() -> {
+			try {
+				return ((Provider<?>) repository.getClass().getMethod("getConfiguredCredentials").invoke(repository)).isPresent();
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new IncompatibleClassChangeError(e.getMessage());
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
+			}
+		});
+	}
+
+	private static <T> T compatible(Supplier<T> action) {
+		try {
+			return action.get();
+		} catch (ClassCastException | LinkageError e) {
+			throw new GradleException(String.format("Multiplatform publishing is not compatible with Gradle %s.", GradleVersion.current().getVersion()), e);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.Action;
+import org.gradle.api.Task;
+import org.gradle.api.publish.Publication;
+import org.gradle.api.tasks.TaskCollection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.codehaus.groovy.runtime.StringGroovyMethods.capitalize;
+
+/**
+ * Dispatches the configuration of publish tasks (i.e. {@literal publish<Publication>PublicationTo<Repository>}) to the actions registered for their publication.
+ * A single {@literal configureEach} is registered per task type and each task is matched by name using a hash lookup,
+ * instead of one name filter per publication checked against every task.
+ *
+ * @param <T>  the task type
+ */
+final class PublishTasksDispatcher<T extends Task> implements Action<T> {
+	private static final String PREFIX = "publish";
+	private static final String SEPARATOR = "PublicationTo";
+	private final Map<String, List<Action<? super T>>> actions = new HashMap<>();
+	private final Map<String, List<T>> knownTasks = new HashMap<>();
+
+	private PublishTasksDispatcher() {}
+
+	/**
+	 * Creates a dispatcher for the specified tasks.
+	 *
+	 * @param tasks  the tasks to dispatch
+	 * @return a new dispatcher
+	 * @param <T>  the task type
+	 */
+	public static <T extends Task> PublishTasksDispatcher<T> of(TaskCollection<T> tasks) {
+		PublishTasksDispatcher<T> result = new PublishTasksDispatcher<>();
+		tasks.configureEach(result);
+		return result;
+	}
+
+	/**
+	 * Configures each publish task of the specified publication, to any repository.
+	 * Tasks already configured are configured immediately.
+	 *
+	 * @param publication  the publication to match
+	 * @param action  the configure action
+	 */
+	public void configureEach(Publication publication, Action<? super T> action) {
+		String key = capitalize(publication.getName());
+		actions.computeIfAbsent(key, __ -> new ArrayList<>()).add(action);
+		// copy as actions may realize more tasks
+		for (T task : new ArrayList<>(knownTasks.getOrDefault(key, Collections.emptyList()))) {
+			action.execute(task);
+		}
+	}
+
+	@Override
+	public void execute(T task) {
+		String taskName = task.getName();
+		if (!taskName.startsWith(PREFIX)) {
+			return;
+		}
+
+		// The publication name may itself contain the separator, try each candidates
+		for (int idx = taskName.indexOf(SEPARATOR, PREFIX.length()); idx != -1; idx = taskName.indexOf(SEPARATOR, idx + 1)) {
+			String key = taskName.substring(PREFIX.length(), idx);
+			if (idx + SEPARATOR.length() == taskName.length()) {
+				break; // no repository
+			}
+
+			knownTasks.computeIfAbsent(key, __ -> new ArrayList<>()).add(task);
+			List<Action<? super T>> publicationActions = actions.get(key);
+			if (publicationActions != null) {
+				// copy as actions may register more actions
+				for (Action<? super T> action : new ArrayList<>(publicationActions)) {
+					action.execute(task);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package dev.nokee.publishing.multiplatform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and counts of each publish-time phase of the bridge publications, shared by all bridge publish tasks of the build.
+ * All methods are thread-safe.
+ */
+final class PublishingStatistics {
+	private final Phase probes = new Phase();
+	private final Phase fetches = new Phase();
+	private final Phase merges = new Phase();
+	private final Phase writes = new Phase();
+	private final Phase uploads = new Phase();
+	private final LongAdder fetchedBytes = new LongAdder();
+	private final LongAdder mergedVariants = new LongAdder();
+	private final LongAdder uploadedBytes = new LongAdder();
+	private final LongAdder skippedFiles = new LongAdder();
+	private final LongAdder skippedBytes = new LongAdder();
+
+	public void probed(long durationNanos) {
+		probes.record(durationNanos);
+	}
+
+	public void fetched(long durationNanos, long bytes) {
+		fetches.record(durationNanos);
+		fetchedBytes.add(bytes);
+	}
+
+	public void merged(long durationNanos, int variants) {
+		merges.record(durationNanos);
+		mergedVariants.add(variants);
+	}
+
+	public void written(long durationNanos) {
+		writes.record(durationNanos);
+	}
+
+	public void uploaded(long durationNanos, long bytes) {
+		uploads.record(durationNanos);
+		uploadedBytes.add(bytes);
+	}
+
+	public void skipped(long bytes) {
+		skippedFiles.increment();
+		skippedBytes.add(bytes);
+	}
+
+	public boolean isEmpty() {
+		return probes.count.sum() == 0 && fetches.count.sum() == 0 && merges.count.sum() == 0 && writes.count.sum() == 0 && uploads.count.sum() == 0 && skippedFiles.sum() == 0;
+	}
+
+	public void writeTo(Path reportFile) throws IOException {
+		Map<String, Object> root = new LinkedHashMap<>();
+		root.put("probes", probes.toMap());
+		Map<String, Object> fetchesReport = fetches.toMap();
+		fetchesReport.put("bytes", fetchedBytes.sum());
+		root.put("fetches", fetchesReport);
+		Map<String, Object> mergesReport = merges.toMap();
+		mergesReport.put("variants", mergedVariants.sum());
+		root.put("merges", mergesReport);
+		root.put("writes", writes.toMap());
+		Map<String, Object> uploadsReport = uploads.toMap();
+		uploadsReport.put("bytes", uploadedBytes.sum());
+		uploadsReport.put("skippedCount", skippedFiles.sum());
+		uploadsReport.put("skippedBytes", skippedBytes.sum());
+		root.put("uploads", uploadsReport);
+
+		Files.createDirectories(reportFile.getParent());
+		try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(reportFile))) {
+			writer.value((Object) root);
+		}
+	}
+
+	private static final class Phase {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder durationNanos = new LongAdder();
+
+		void record(long durationNanos) {
+			count.increment();
+			this.durationNanos.add(durationNanos);
+		}
+
+		Map<String, Object> toMap() {
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("count", count.sum());
+			result.put("durationNanos", durationNanos.sum());
+			return result;
+		}
+	}
+}
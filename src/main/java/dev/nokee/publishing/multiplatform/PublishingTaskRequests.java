@@ -0,0 +1,53 @@
+package dev.nokee.publishing.multiplatform;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Guesses if the requested tasks may involve publishing without realizing any publication.
+ * The task graph can't be used as publish tasks only exist once the publications are realized.
+ * Instead, a requested task may involve publishing when its name, possibly abbreviated, starts like a publishing task name,
+ * i.e. {@literal publish*}, {@literal generate*} (metadata and descriptor files) and {@literal stage*} (staged bridge metadata).
+ * Guessing wrong only means realizing the multiplatform publications for nothing.
+ */
+final class PublishingTaskRequests {
+	private static final List<String> PUBLISHING_TASK_WORDS = Arrays.asList("publish", "generate", "stage");
+
+	private PublishingTaskRequests() {}
+
+	/**
+	 * Checks if any of the requested task may involve publishing.
+	 *
+	 * @param requestedTasks  the requested task names or paths, as specified on the command line
+	 * @return {@code true} if publishing may be involved or {@code false} otherwise
+	 */
+	public static boolean mayPublish(List<String> requestedTasks) {
+		for (String requestedTask : requestedTasks) {
+			if (requestedTask.startsWith("-")) {
+				continue; // task options
+			}
+
+			String firstWord = firstWord(requestedTask.substring(requestedTask.lastIndexOf(':') + 1));
+			if (firstWord.isEmpty()) {
+				continue;
+			}
+
+			for (String publishingTaskWord : PUBLISHING_TASK_WORDS) {
+				if (publishingTaskWord.startsWith(firstWord)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// first camel case word, lower cased as task abbreviations are matched ignoring case
+	private static String firstWord(String taskName) {
+		int idx = 1;
+		while (idx < taskName.length() && !Character.isUpperCase(taskName.charAt(idx)) && taskName.charAt(idx) != '-') {
+			idx++;
+		}
+		return taskName.substring(0, Math.min(idx, taskName.length())).toLowerCase(Locale.ROOT);
+	}
+}
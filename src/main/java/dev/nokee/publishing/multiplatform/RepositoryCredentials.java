@@ -0,0 +1,48 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.AuthenticationSupported;
+import org.gradle.api.artifacts.repositories.PasswordCredentials;
+import org.gradle.authentication.Authentication;
+import org.gradle.authentication.http.BasicAuthentication;
+
+/**
+ * Reads the credentials configured on a repository for the {@link RepositoryTransport}, which only supports basic authentication.
+ */
+final class RepositoryCredentials {
+	private RepositoryCredentials() {}
+
+	/**
+	 * {@return the username and password credentials of the specified repository, or {@code null} if the repository has no credentials}
+	 *
+	 * @param repository  the Maven or Ivy repository
+	 * @throws GradleException if the repository uses other credentials (e.g. HTTP header or AWS) or other authentication schemes (e.g. digest), or the username is missing
+	 */
+	public static PasswordCredentials of(AuthenticationSupported repository) throws GradleException {
+		for (Authentication authentication : repository.getAuthentication()) {
+			if (!(authentication instanceof BasicAuthentication)) {
+				throw unsupported(repository, "authentication '" + authentication.getName() + "'");
+			}
+		}
+
+		if (!PublicationInternals.usesCredentials(repository)) {
+			return null;
+		}
+
+		PasswordCredentials result;
+		try {
+			result = repository.getCredentials();
+		} catch (IllegalStateException e) {
+			throw unsupported(repository, "credentials");
+		}
+		if (result.getUsername() == null) {
+			throw new GradleException(String.format("Cannot use the credentials of repository '%s' for multiplatform publishing, the username is missing.", ((ArtifactRepository) repository).getName()));
+		}
+		return result;
+	}
+
+	private static GradleException unsupported(AuthenticationSupported repository, String what) {
+		return new GradleException(String.format("Cannot use the %s of repository '%s' for multiplatform publishing, only username and password credentials with basic authentication are supported.", what, ((ArtifactRepository) repository).getName()));
+	}
+}
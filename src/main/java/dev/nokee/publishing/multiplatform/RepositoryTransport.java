@@ -0,0 +1,173 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.resources.MissingResourceException;
+import org.gradle.api.resources.ResourceException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+
+/**
+ * Reads and writes files of a local ({@literal file}) or remote ({@literal http} and {@literal https}) repository.
+ * Remote requests authenticate with basic authentication when a username is provided.
+ */
+final class RepositoryTransport {
+	private static final int TIMEOUT_MILLIS = 30_000;
+	private final URI repositoryUrl;
+	private final String authorization;
+
+	public RepositoryTransport(URI repositoryUrl, String username, String password) {
+		this.repositoryUrl = repositoryUrl.getPath().endsWith("/") ? repositoryUrl : URI.create(repositoryUrl + "/");
+		this.authorization = authorization(username, password);
+		if (!isLocal() && !isRemote()) {
+			throw new UnsupportedOperationException(String.format("Cannot upload to '%s' as only file, http and https repositories are supported.", repositoryUrl));
+		}
+	}
+
+	/**
+	 * Returns the content of the specified repository file.
+	 *
+	 * @param path  the file path relative to the repository
+	 * @return the file content, never null
+	 * @throws MissingResourceException if the file doesn't exist
+	 */
+	public byte[] get(String path) throws MissingResourceException {
+		URI location = repositoryUrl.resolve(path);
+		try {
+			if (isLocal()) {
+				return Files.readAllBytes(Paths.get(location));
+			}
+
+			HttpURLConnection connection = open(location);
+			try {
+				int responseCode = connection.getResponseCode();
+				if (responseCode == HttpURLConnection.HTTP_NOT_FOUND || responseCode == HttpURLConnection.HTTP_GONE) {
+					throw new MissingResourceException(location, String.format("Could not read '%s' as it does not exist.", location));
+				} else if (responseCode < 200 || responseCode >= 300) {
+					throw new ResourceException(location, String.format("Could not get resource '%s', received status code %d from server.", location, responseCode));
+				}
+				try (InputStream inStream = connection.getInputStream()) {
+					ByteArrayOutputStream result = new ByteArrayOutputStream();
+					byte[] buffer = new byte[8192];
+					int length;
+					while ((length = inStream.read(buffer)) != -1) {
+						result.write(buffer, 0, length);
+					}
+					return result.toByteArray();
+				}
+			} finally {
+				connection.disconnect();
+			}
+		} catch (FileNotFoundException | NoSuchFileException e) {
+			throw new MissingResourceException(location, String.format("Could not read '%s' as it does not exist.", location), e);
+		} catch (IOException e) {
+			throw new ResourceException(location, String.format("Could not get resource '%s'.", location), e);
+		}
+	}
+
+	/**
+	 * Writes the specified local file to the repository.
+	 *
+	 * @param path  the file path relative to the repository
+	 * @param file  the local file to write
+	 * @throws ResourceException if the file couldn't be written
+	 */
+	public void put(String path, Path file) throws ResourceException {
+		URI location = repositoryUrl.resolve(path);
+		try {
+			if (isLocal()) {
+				Path target = Paths.get(location);
+				Files.createDirectories(target.getParent());
+				Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+			} else {
+				put(location, Files.size(file), outStream -> Files.copy(file, outStream));
+			}
+		} catch (IOException e) {
+			throw new ResourceException(location, String.format("Could not write to resource '%s'.", location), e);
+		}
+	}
+
+	/**
+	 * Writes the specified content to the repository.
+	 *
+	 * @param path  the file path relative to the repository
+	 * @param content  the content to write
+	 * @throws ResourceException if the file couldn't be written
+	 */
+	public void put(String path, byte[] content) throws ResourceException {
+		URI location = repositoryUrl.resolve(path);
+		try {
+			if (isLocal()) {
+				Path target = Paths.get(location);
+				Files.createDirectories(target.getParent());
+				Files.write(target, content);
+			} else {
+				put(location, content.length, outStream -> outStream.write(content));
+			}
+		} catch (IOException e) {
+			throw new ResourceException(location, String.format("Could not write to resource '%s'.", location), e);
+		}
+	}
+
+	private void put(URI location, long length, ContentWriter writer) throws IOException {
+		HttpURLConnection connection = open(location);
+		try {
+			connection.setRequestMethod("PUT");
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(length);
+			try (OutputStream outStream = connection.getOutputStream()) {
+				writer.writeTo(outStream);
+			}
+			int responseCode = connection.getResponseCode();
+			if (responseCode < 200 || responseCode >= 300) {
+				throw new ResourceException(location, String.format("Could not write to resource '%s', received status code %d from server.", location, responseCode));
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private HttpURLConnection open(URI location) throws IOException {
+		URLConnection connection = location.toURL().openConnection();
+		connection.setConnectTimeout(TIMEOUT_MILLIS);
+		connection.setReadTimeout(TIMEOUT_MILLIS);
+		if (authorization != null) {
+			connection.setRequestProperty("Authorization", authorization);
+		}
+		return (HttpURLConnection) connection;
+	}
+
+	/**
+	 * {@return the value of the basic authentication header for the specified credentials, or {@code null} without username}
+	 */
+	static String authorization(String username, String password) {
+		if (username == null) {
+			return null;
+		}
+		return "Basic " + Base64.getEncoder().encodeToString((username + ":" + (password == null ? "" : password)).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private boolean isLocal() {
+		return "file".equals(repositoryUrl.getScheme());
+	}
+
+	private boolean isRemote() {
+		return "http".equals(repositoryUrl.getScheme()) || "https".equals(repositoryUrl.getScheme());
+	}
+
+	private interface ContentWriter {
+		void writeTo(OutputStream outStream) throws IOException;
+	}
+}
@@ -0,0 +1,68 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stages the Gradle Module Metadata published by a bridge publication.
+ * The metadata with the platform variants of each repository is staged by a task per repository, i.e. {@literal stageMetadataFileFor<Publication>PublicationTo<Repository>Repository}.
+ * The publication has a single module metadata artifact shared by all its publish tasks, each of them copies the metadata of its repository to the staged file right before publishing.
+ * As the publish tasks overwrite it, the staged file is not cached.
+ * When the platform module metadata files are provided, i.e. built in the same build, their variants are merged right away instead
+ * and the publish tasks publish the staged file as-is, the plugin then enables caching.
+ * The original metadata file is never touched.
+ */
+@DisableCachingByDefault(because = "The staged file is overwritten by the bridge publish tasks")
+/*private*/ abstract /*final*/ class StageBridgeModuleMetadata extends DefaultTask {
+	/**
+	 * {@return the module metadata file generated by Gradle}
+	 */
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getModuleMetadataFile();
+
+	/**
+	 * {@return the module metadata files of the platform publications to merge, if any}
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract ConfigurableFileCollection getPlatformModuleMetadataFiles();
+
+	/**
+	 * {@return the staged module metadata file, published by the bridge publication}
+	 */
+	@OutputFile
+	public abstract RegularFileProperty getOutputFile();
+
+	@TaskAction
+	public void doStage() {
+		try {
+			if (getPlatformModuleMetadataFiles().isEmpty()) {
+				Files.copy(getModuleMetadataFile().get().getAsFile().toPath(), getOutputFile().get().getAsFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} else {
+				BridgeModuleMetadataMerger merger = new BridgeModuleMetadataMerger(new String(Files.readAllBytes(getModuleMetadataFile().get().getAsFile().toPath()), StandardCharsets.UTF_8));
+				for (File platformModuleMetadataFile : getPlatformModuleMetadataFiles()) {
+					merger.addRemoteVariants(new String(Files.readAllBytes(platformModuleMetadataFile.toPath()), StandardCharsets.UTF_8));
+				}
+				merger.writeTo(Files.newBufferedWriter(getOutputFile().get().getAsFile().toPath()));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
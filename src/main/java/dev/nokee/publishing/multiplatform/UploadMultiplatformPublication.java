@@ -0,0 +1,226 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.resources.MissingResourceException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Uploads a multiplatform publication from the staging repository to a repository.
+ * The files of all platform publications are uploaded together using the bounded concurrency of the platform modules service.
+ * The files of the bridge publication are uploaded last so consumers never see a bridge module without its platform modules.
+ * Module-level {@literal maven-metadata.xml} files are merged with the ones of the repository to keep the previously published versions.
+ * Maven snapshots are not uploaded, they depend on the regular publish tasks instead so the repository keeps their snapshot history.
+ * In incremental mode, the files already published identically (i.e. matching checksums) are not uploaded again,
+ * neither are their checksum and signature files.
+ */
+@DisableCachingByDefault(because = "Publishing is not cacheable")
+/*private*/ abstract /*final*/ class UploadMultiplatformPublication extends DefaultTask {
+	private static final String MAVEN_METADATA_FILE_NAME = "maven-metadata.xml";
+
+	/**
+	 * {@return the staging repository containing the publication files}
+	 */
+	@Internal
+	public abstract DirectoryProperty getStagingRepository();
+
+	/**
+	 * {@return the module paths, relative to the repository, of each platform publication}
+	 */
+	@Input
+	public abstract ListProperty<String> getPlatformModulePaths();
+
+	/**
+	 * {@return the module path, relative to the repository, of the bridge publication}
+	 */
+	@Input
+	public abstract Property<String> getBridgeModulePath();
+
+	/**
+	 * {@return the version of the multiplatform publication}
+	 */
+	@Input
+	public abstract Property<String> getVersion();
+
+	/**
+	 * {@return true if the publication is a Maven snapshot, which is published without staging}
+	 */
+	@Input
+	public abstract Property<Boolean> getSnapshot();
+
+	/**
+	 * {@return the repository to upload to}
+	 */
+	@Input
+	public abstract Property<URI> getRepositoryUrl();
+
+	/**
+	 * {@return the username to authenticate with the repository}
+	 */
+	@Input
+	@Optional
+	public abstract Property<String> getUsername();
+
+	/**
+	 * {@return the password to authenticate with the repository}
+	 */
+	@Internal
+	public abstract Property<String> getPassword();
+
+	/**
+	 * {@return true if the files already published identically are skipped}
+	 */
+	@Input
+	public abstract Property<Boolean> getIncremental();
+
+	/**
+	 * {@return the service executing the uploads}
+	 */
+	@Internal
+	public abstract Property<PlatformModulesService> getPlatformModules();
+
+	@TaskAction
+	public void doUpload() {
+		RepositoryTransport transport = new RepositoryTransport(getRepositoryUrl().get(), getUsername().getOrNull(), getPassword().getOrNull());
+		PlatformModulesService service = getPlatformModules().get();
+		Path stagingRepository = getStagingRepository().get().getAsFile().toPath();
+
+		List<String> platformFiles = new ArrayList<>();
+		for (String platformModulePath : getPlatformModulePaths().get()) {
+			platformFiles.addAll(stagedFiles(stagingRepository, platformModulePath + "/" + getVersion().get()));
+		}
+		uploadAll(service, transport, stagingRepository, platformFiles);
+		service.forEach(getPlatformModulePaths().get(), modulePath -> uploadMavenMetadata(service, transport, stagingRepository, modulePath));
+
+		uploadAll(service, transport, stagingRepository, stagedFiles(stagingRepository, getBridgeModulePath().get() + "/" + getVersion().get()));
+		uploadMavenMetadata(service, transport, stagingRepository, getBridgeModulePath().get());
+	}
+
+	private void uploadAll(PlatformModulesService service, RepositoryTransport transport, Path stagingRepository, List<String> paths) {
+		if (getIncremental().get()) {
+			service.forEach(groupBySignedFile(paths), files -> {
+				Path file = stagingRepository.resolve(files.get(0));
+				if (Checksums.isPublishedIdentically(transport, files.get(0), file)) {
+					for (String path : files) {
+						service.getStatistics().skipped(size(stagingRepository.resolve(path)));
+					}
+				} else {
+					files.forEach(path -> upload(service, transport, stagingRepository, path));
+				}
+			});
+		} else {
+			service.forEach(paths, path -> upload(service, transport, stagingRepository, path));
+		}
+	}
+
+	private static List<String> stagedFiles(Path stagingRepository, String directoryPath) {
+		Path directory = stagingRepository.resolve(directoryPath);
+		if (!Files.isDirectory(directory)) {
+			throw new IllegalStateException(String.format("Cannot upload '%s' as it was not staged.", directoryPath));
+		}
+
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).map(it -> stagingRepository.relativize(it).toString().replace('\\', '/')).sorted().collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Groups each file with its checksum and signature files, the file itself comes first
+	private static List<List<String>> groupBySignedFile(List<String> paths) {
+		Map<String, List<String>> result = new LinkedHashMap<>();
+		for (String path : paths) {
+			result.computeIfAbsent(path, __ -> new ArrayList<>());
+		}
+		for (String path : paths) {
+			String signedPath = signedPathOf(path);
+			if (!signedPath.equals(path) && result.containsKey(signedPath)) {
+				result.remove(path);
+				result.get(signedPath).add(path);
+			}
+		}
+		result.forEach((path, sidecars) -> sidecars.add(0, path));
+		return new ArrayList<>(result.values());
+	}
+
+	private static String signedPathOf(String path) {
+		String result = path;
+		for (String algorithm : Checksums.ALGORITHMS) {
+			if (result.endsWith("." + Checksums.extensionOf(algorithm))) {
+				result = result.substring(0, result.length() - Checksums.extensionOf(algorithm).length() - 1);
+				break;
+			}
+		}
+		if (result.endsWith(".asc")) {
+			result = result.substring(0, result.length() - ".asc".length());
+		}
+		return result;
+	}
+
+	private static long size(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void upload(PlatformModulesService service, RepositoryTransport transport, Path stagingRepository, String path) {
+		try {
+			Path file = stagingRepository.resolve(path);
+			long startTime = System.nanoTime();
+			transport.put(path, file);
+			service.getStatistics().uploaded(System.nanoTime() - startTime, Files.size(file));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Only Maven repositories have module-level metadata, the staged checksums are replaced by the ones of the merged metadata
+	private static void uploadMavenMetadata(PlatformModulesService service, RepositoryTransport transport, Path stagingRepository, String modulePath) {
+		String path = modulePath + "/" + MAVEN_METADATA_FILE_NAME;
+		Path stagedFile = stagingRepository.resolve(path);
+		if (!Files.exists(stagedFile)) {
+			return;
+		}
+
+		try {
+			long startTime = System.nanoTime();
+			byte[] metadata = Files.readAllBytes(stagedFile);
+			try {
+				metadata = MavenMetadataMerger.merge(transport.get(path), metadata);
+			} catch (MissingResourceException ex) {
+				// first publication of the module, nothing to merge
+			}
+			transport.put(path, metadata);
+			long uploadedBytes = metadata.length;
+			for (String algorithm : Checksums.ALGORITHMS) {
+				byte[] checksum = Checksums.hash(algorithm, metadata).getBytes(StandardCharsets.US_ASCII);
+				transport.put(path + "." + Checksums.extensionOf(algorithm), checksum);
+				uploadedBytes += checksum.length;
+			}
+			service.getStatistics().uploaded(System.nanoTime() - startTime, uploadedBytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -4,7 +4,6 @@ import dev.nokee.commons.names.FullyQualifiedName;
 import dev.nokee.platform.base.View;
 import org.gradle.api.Action;
 import org.gradle.api.NamedDomainObjectCollection;
-import org.gradle.api.Namer;
 import org.gradle.api.Project;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Provider;
@@ -12,7 +11,9 @@ import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.provider.SetProperty;
 
 import javax.inject.Inject;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -22,45 +23,52 @@ import static dev.nokee.commons.gradle.ActionUtils.ignored;
 
 class ViewAdapter<T> implements ViewInternal, View<T> {
 	private final Class<T> elementType;
-	private final Namer<T> namer;
 	private final NamedDomainObjectCollection<T> collection;
+	private final NamedElementsDispatcher<T> dispatcher;
 	private final ProviderFactory providers;
 	private final ObjectFactory objects;
 	private final Set<String> knownElements = new LinkedHashSet<>();
+	private final List<Action<? super T>> configureActions = new ArrayList<>();
 	private final Finalizer finalizer;
 
-	protected ViewAdapter(Class<T> elementType, Namer<T> namer, NamedDomainObjectCollection<T> collection, Finalizer finalizer, ProviderFactory providers, ObjectFactory objects) {
+	protected ViewAdapter(Class<T> elementType, NamedDomainObjectCollection<T> collection, NamedElementsDispatcher<T> dispatcher, Finalizer finalizer, ProviderFactory providers, ObjectFactory objects) {
 		this.elementType = elementType;
-		this.namer = namer;
 		this.collection = collection;
+		this.dispatcher = dispatcher;
 		this.finalizer = finalizer;
 		this.providers = providers;
 		this.objects = objects;
 	}
 
 	protected <R> R register(FullyQualifiedName fullName, Function<? super String, ? extends R> action) {
-		// TODO: assert not finalized
-		knownElements.add(fullName.toString());
-		return action.apply(fullName.toString());
+		String name = fullName.toString();
+		assertNotFinalized("register element '" + name + "'");
+		if (knownElements.add(name)) {
+			for (Action<? super T> configureAction : configureActions) {
+				dispatcher.configure(name, configureAction);
+			}
+		}
+		return action.apply(name);
 	}
 
+	// Still allowed once finalized, the known elements are configured immediately
 	@Override
 	public void configureEach(Action<? super T> configureAction) {
-		// TODO: Assert not finalized
-		doConfigureEach(configureAction);
+		configureActions.add(configureAction);
+		for (String knownElement : knownElements) {
+			dispatcher.configure(knownElement, configureAction);
+		}
 	}
 
-	private void doConfigureEach(Action<? super T> configureAction) {
-		collection.configureEach(it -> {
-			if (knownElements.contains(namer.determineName(it))) {
-				configureAction.execute(it);
-			}
-		});
+	private void assertNotFinalized(String operation) {
+		if (finalizer.isFinalized()) {
+			throw new IllegalStateException("Cannot " + operation + " as the view is already finalized.");
+		}
 	}
 
 	public void whenElementFinalized(Action<? super T> finalizeAction) {
-		// TODO: What does it means to add a finalized action when view is finalized?
-		finalizer.whenFinalizing(() -> doConfigureEach(finalizeAction));
+		// executes immediately when the view is already finalized
+		finalizer.whenFinalizing(() -> configureEach(finalizeAction));
 	}
 
 	@Override
@@ -80,43 +88,47 @@ class ViewAdapter<T> implements ViewInternal, View<T> {
 		finalizer.now();
 	}
 
+	/**
+	 * Finalizes the views of a project, either explicitly or after the project is evaluated.
+	 * A single lifecycle hook is registered per finalizer and each action is executed once, in registration order.
+	 */
 	static abstract class Finalizer {
-		private final List<Runnable> actions = new ArrayList<>();
-		private final Project project;
+		private final Deque<Runnable> actions = new ArrayDeque<>();
+		private boolean finalized = false;
 
 		@Inject
 		public Finalizer(Project project) {
-			this.project = project;
-			// TODO: Register lifecycle afterevaluate to mark the view as finalized
+			project.afterEvaluate(ignored(this::now));
 		}
 
+		/**
+		 * Executes the specified action when finalizing.
+		 * The action is executed immediately when already finalized.
+		 *
+		 * @param action  the action to execute
+		 */
 		public void whenFinalizing(Runnable action) {
-			action = once(action);
-			actions.add(action);
-			project.afterEvaluate(ignored(action));
+			if (finalized) {
+				action.run();
+			} else {
+				actions.add(action);
+			}
 		}
 
-		public void now() {
-			while (!actions.isEmpty()) {
-				actions.remove(0).run();
-			}
+		/**
+		 * {@return true if finalized, or finalizing, false otherwise}
+		 */
+		public boolean isFinalized() {
+			return finalized;
 		}
-	}
 
-	private static Runnable once(Runnable runnable) {
-		return new Runnable() {
-			private boolean ran = false;
-
-			@Override
-			public void run() {
-				if (!ran) {
-					try {
-						runnable.run();
-					} finally {
-						ran = true;
-					}
-				}
+		public void now() {
+			finalized = true;
+			// poll as actions may finalize again, i.e. reentrant call
+			Runnable action;
+			while ((action = actions.poll()) != null) {
+				action.run();
 			}
-		};
+		}
 	}
 }
@@ -0,0 +1,65 @@
+package dev.nokee.publishing.multiplatform;
+
+import groovy.json.JsonSlurper;
+import org.gradle.api.Action;
+import org.gradle.api.Task;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the manifest of a platform publication, i.e. its module metadata without dependencies and files.
+ * The manifest contains everything the bridge publication needs to reference the platform variants (coordinate, variant names, attributes and capabilities).
+ * Collected from each platform build, the manifests let a fan-in build publish the bridge publication without fetching the platform modules.
+ * It runs last in the platform publish tasks, a manifest is only written once its platform publication is published.
+ * Nothing is written when the manifest file is absent, e.g. when publishing to a staging repository.
+ */
+final class WritePlatformManifest implements Action<Task> {
+	private final Provider<RegularFile> moduleMetadataFile;
+	private final Provider<RegularFile> manifestFile;
+
+	public WritePlatformManifest(Provider<RegularFile> moduleMetadataFile, Provider<RegularFile> manifestFile) {
+		this.moduleMetadataFile = moduleMetadataFile;
+		this.manifestFile = manifestFile;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void execute(Task task) {
+		if (!manifestFile.isPresent()) {
+			return;
+		}
+
+		try {
+			Map<String, Object> module = (Map<String, Object>) new JsonSlurper().parse(moduleMetadataFile.get().getAsFile());
+			List<Object> variants = new ArrayList<>();
+			for (Map<String, Object> moduleVariant : (List<Map<String, Object>>) module.get("variants")) {
+				Map<String, Object> variant = new LinkedHashMap<>(moduleVariant);
+				variant.remove("dependencies");
+				variant.remove("dependencyConstraints");
+				variant.remove("files");
+				variants.add(variant);
+			}
+
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("formatVersion", module.get("formatVersion"));
+			result.put("component", module.get("component"));
+			result.put("variants", variants);
+			File outputFile = manifestFile.get().getAsFile();
+			Files.createDirectories(outputFile.getParentFile().toPath());
+			try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(outputFile.toPath()))) {
+				writer.value((Object) result);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BridgeModuleMetadataMergerTests {
+	static final String BRIDGE_MODULE = """
+		{
+		  "formatVersion": "1.1",
+		  "component": {
+		    "group": "com.example",
+		    "module": "my-lib",
+		    "version": "1.0"
+		  },
+		  "variants": [
+		    {
+		      "name": "cppApiElements",
+		      "attributes": {
+		        "org.gradle.usage": "cplusplus-api"
+		      }
+		    }
+		  ]
+		}
+		""";
+	static final String PLATFORM_MODULE = """
+		{
+		  "formatVersion": "1.1",
+		  "component": {
+		    "group": "com.example",
+		    "module": "my-lib_debug",
+		    "version": "1.0"
+		  },
+		  "variants": [
+		    {
+		      "name": "debugLinkElements",
+		      "attributes": {
+		        "org.gradle.usage": "native-link"
+		      },
+		      "dependencies": [
+		        {
+		          "group": "com.example",
+		          "module": "my-dep",
+		          "version": {
+		            "requires": "1.0"
+		          }
+		        }
+		      ],
+		      "files": [
+		        {
+		          "name": "libfoo.so",
+		          "url": "my-lib_debug-1.0.so",
+		          "size": 0
+		        }
+		      ]
+		    }
+		  ]
+		}
+		""";
+
+	@Test
+	void keepsBridgeModuleUnchangedWithoutPlatforms() throws IOException {
+		StringWriter out = new StringWriter();
+		new BridgeModuleMetadataMerger(BRIDGE_MODULE).writeTo(out);
+		assertThat(out.toString(), equalTo(BRIDGE_MODULE));
+	}
+
+	@Test
+	void addsPlatformVariantsAsRemoteVariants() throws IOException {
+		BridgeModuleMetadataMerger subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE);
+		StringWriter out = new StringWriter();
+		subject.writeTo(out);
+		assertThat(out.toString(), equalTo("""
+			{
+			  "formatVersion": "1.1",
+			  "component": {
+			    "group": "com.example",
+			    "module": "my-lib",
+			    "version": "1.0"
+			  },
+			  "variants": [
+			    {
+			      "name": "cppApiElements",
+			      "attributes": {
+			        "org.gradle.usage": "cplusplus-api"
+			      }
+			    },
+			    {
+			      "name": "debugLinkElements",
+			      "attributes": {
+			        "org.gradle.usage": "native-link"
+			      },
+			      "available-at": {
+			        "url": "../../my-lib_debug/1.0",
+			        "group": "com.example",
+			        "module": "my-lib_debug",
+			        "version": "1.0"
+			      }
+			    }
+			  ]
+			}
+			"""));
+	}
+
+	@Test
+	void writesIdenticalMetadataForEquivalentPlatformModules() throws IOException {
+		StringWriter expected = new StringWriter();
+		BridgeModuleMetadataMerger subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE.replace("\"org.gradle.usage\": \"native-link\"", "\"org.gradle.usage\": \"native-link\", \"org.gradle.native.debuggable\": true"));
+		subject.writeTo(expected);
+
+		// same variants, reformatted with other key and attribute orders, and rebuilt files
+		StringWriter out = new StringWriter();
+		subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", """
+			{"variants": [{"files": [{"size": 42, "url": "my-lib_debug-1.0.so", "name": "libfoo.so"}], "attributes": {"org.gradle.native.debuggable": true, "org.gradle.usage": "native-link"}, "name": "debugLinkElements"}],
+			"component": {"version": "1.0", "module": "my-lib_debug", "group": "com.example"}, "formatVersion": "1.1"}
+			""");
+		subject.writeTo(out);
+
+		assertThat(out.toString(), equalTo(expected.toString()));
+	}
+
+	@Test
+	void writesRemoteVariantsInCanonicalOrder() throws IOException {
+		String releaseModule = PLATFORM_MODULE.replace("debug", "release");
+		StringWriter first = new StringWriter();
+		BridgeModuleMetadataMerger subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_release", "1.0", releaseModule);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE);
+		subject.writeTo(first);
+
+		StringWriter second = new StringWriter();
+		subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_release", "1.0", releaseModule);
+		subject.writeTo(second);
+
+		assertThat(first.toString(), equalTo(second.toString()));
+		assertThat(first.toString(), stringContainsInOrder("cppApiElements", "debugLinkElements", "releaseLinkElements"));
+	}
+
+	@Test
+	void sortsRemoteVariantAttributesByName() throws IOException {
+		BridgeModuleMetadataMerger subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE.replace("\"org.gradle.usage\": \"native-link\"", "\"org.gradle.usage\": \"native-link\", \"org.gradle.native.debuggable\": true"));
+		StringWriter out = new StringWriter();
+		subject.writeTo(out);
+		assertThat(out.toString(), stringContainsInOrder("debugLinkElements", "\"org.gradle.native.debuggable\": true,", "\"org.gradle.usage\": \"native-link\""));
+	}
+
+	@Test
+	void usesPlatformModuleCoordinateWhenNotSpecified() throws IOException {
+		StringWriter expected = new StringWriter();
+		BridgeModuleMetadataMerger subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		subject.addRemoteVariants("com.example", "my-lib_debug", "1.0", PLATFORM_MODULE);
+		subject.writeTo(expected);
+
+		StringWriter out = new StringWriter();
+		subject = new BridgeModuleMetadataMerger(BRIDGE_MODULE);
+		assertThat(subject.addRemoteVariants(PLATFORM_MODULE), equalTo(1));
+		subject.writeTo(out);
+
+		assertThat(out.toString(), equalTo(expected.toString()));
+	}
+}
@@ -0,0 +1,73 @@
+package dev.nokee.publishing.multiplatform;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ChecksumsTests {
+	@TempDir Path testDirectory;
+	RepositoryTransport transport;
+	Path file;
+
+	@BeforeEach
+	void setup() throws IOException {
+		transport = new RepositoryTransport(testDirectory.resolve("repo").toUri(), null, null);
+		file = Files.writeString(testDirectory.resolve("libfoo.so"), "native binary");
+		transport.put("com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file);
+	}
+
+	@Test
+	void hashesContentAsPaddedHexadecimal() {
+		assertThat(Checksums.hash("SHA-1", new byte[0]), equalTo("da39a3ee5e6b4b0d3255bfef95601890afd80709"));
+		assertThat(Checksums.hash("MD5", "".getBytes(StandardCharsets.UTF_8)), equalTo("d41d8cd98f00b204e9800998ecf8427e"));
+		assertThat(Checksums.extensionOf("SHA-256"), equalTo("sha256"));
+	}
+
+	@Test
+	void comparesWithSha256ChecksumFiles() throws IOException {
+		transport.put("com/example/my-lib_debug/1.0/my-lib_debug-1.0.so.sha256", Checksums.hash("SHA-256", file).getBytes(StandardCharsets.US_ASCII));
+		assertThat(Checksums.isPublishedIdentically(transport, "com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file), is(true));
+
+		Files.writeString(file, "rebuilt native binary");
+		assertThat(Checksums.isPublishedIdentically(transport, "com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file), is(false));
+	}
+
+	@Test
+	void fallsBackToSha1ChecksumFiles() throws IOException {
+		transport.put("com/example/my-lib_debug/1.0/my-lib_debug-1.0.so.sha1", (Checksums.hash("SHA-1", file) + "  my-lib_debug-1.0.so").getBytes(StandardCharsets.US_ASCII));
+		assertThat(Checksums.isPublishedIdentically(transport, "com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file), is(true));
+	}
+
+	@Test
+	void isNotPublishedIdenticallyWithoutChecksumFiles() throws IOException {
+		assertThat(Checksums.isPublishedIdentically(transport, "com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file), is(false));
+		assertThat(Checksums.isPublishedIdentically(transport, "com/example/my-lib_release/1.0/my-lib_release-1.0.so", file), is(false));
+	}
+
+	@Test
+	void isNotPublishedIdenticallyWhenChecksumFilesCannotBeRead() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			exchange.sendResponseHeaders(401, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			RepositoryTransport subject = new RepositoryTransport(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/repo"), null, null);
+			assertThat(Checksums.isPublishedIdentically(subject, "com/example/my-lib_debug/1.0/my-lib_debug-1.0.so", file), is(false));
+		} finally {
+			server.stop(0);
+		}
+	}
+}
@@ -11,14 +11,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static dev.gradleplugins.buildscript.syntax.Syntax.groovyDsl;
+import static dev.nokee.commons.hamcrest.Has.has;
+import static dev.nokee.commons.hamcrest.With.with;
+import static dev.nokee.commons.hamcrest.gradle.NamedMatcher.named;
 import static dev.nokee.publishing.multiplatform.fixtures.IvyFileRepository.ivyRepository;
+import static dev.nokee.publishing.multiplatform.fixtures.MavenRepositoryMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsString;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 
 class IvyFunctionalTests {
 	@TempDir Path testDirectory;
@@ -152,4 +159,113 @@ class IvyFunctionalTests {
 			assertThat(result.task(":publishCppPublicationToIvyRepository").getOutput(), containsString("Warning: Publication with coordinate 'com.example:test-project_release:1.0' not published."));
 		}
 	}
+
+	@Nested
+	class PlatformCoordinateTests {
+		@Test
+		void generatesPlatformIvyDescriptorWithPlatformCoordinate() throws IOException {
+			runner.withTasks("publish").build();
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cppDebug/ivy.xml")), containsString(" module=\"test-project_debug\" "));
+		}
+	}
+
+	@Nested
+	class StagedUploadTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.STAGED_UPLOAD_PROPERTY + "=true");
+		}
+
+		@Test
+		void canPublishMultiplatformPublicationsUsingStagedUpload() {
+			BuildResult result = runner.withTasks("publishMultiplatform").build();
+			assertThat(result.task(":publishCppMultiplatformPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(Files.exists(testDirectory.resolve("repo/com.example/test-project_debug/1.0/ivy-1.0.xml")), is(true));
+			assertThat(Files.exists(testDirectory.resolve("repo/com.example/test-project_release/1.0/test-project_release-1.0.module")), is(true));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+
+		@Test
+		void doesNotUploadFilesStagedByPreviousBuilds() throws IOException {
+			Files.createDirectories(testDirectory.resolve("build/multiplatform-staging/ivy/com.example/test-project_debug/1.0"));
+			Files.writeString(testDirectory.resolve("build/multiplatform-staging/ivy/com.example/test-project_debug/1.0/libfoo-1.0-stale.so"), "stale");
+			runner.withTasks("publishMultiplatform").build();
+			assertThat(Files.exists(testDirectory.resolve("repo/com.example/test-project_debug/1.0/libfoo-1.0-stale.so")), is(false));
+			assertThat(Files.exists(testDirectory.resolve("repo/com.example/test-project_debug/1.0/ivy-1.0.xml")), is(true));
+		}
+	}
+
+	@Nested
+	class IncrementalPublishTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.INCREMENTAL_PROPERTY + "=true");
+		}
+
+		@Test
+		void skipsPublicationsAlreadyPublishedIdentically() {
+			runner.withTasks("publish").build();
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppDebugPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(result.task(":publishCppReleasePublicationToIvyRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(result.task(":publishCppPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+
+		@Test
+		void publishesPlatformPublicationsWithChangedFiles() throws IOException {
+			runner.withTasks("publish").build();
+			Files.writeString(testDirectory.resolve("debug/libfoo.so"), "rebuilt");
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppDebugPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(result.task(":publishCppReleasePublicationToIvyRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+	}
+
+	@Nested
+	class PlatformManifestTests {
+		@Test
+		void canPublishBridgePublicationFromPlatformManifestsWithoutFetchingPlatformModules() throws IOException {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.PLATFORM_MANIFESTS_PROPERTY + "=build/platform-manifests");
+			runner.withTasks("publishCppDebugPublicationToIvyRepository", "publishCppReleasePublicationToIvyRepository").build();
+			assertThat(Files.exists(testDirectory.resolve("build/platform-manifests/com.example/test-project_debug-1.0.json")), is(true));
+			// the fan-in build only sees the collected manifests
+			Files.delete(testDirectory.resolve("repo/com.example/test-project_debug/1.0/test-project_debug-1.0.module"));
+			Files.delete(testDirectory.resolve("repo/com.example/test-project_release/1.0/test-project_release-1.0.module"));
+
+			BuildResult result = runner.withTasks("publishCppPublicationToIvyRepository").build();
+			assertThat(result.task(":publishCppPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+	}
+
+	@Nested
+	class LocalPlatformModulesTests {
+		@Test
+		void generatesBridgeMetadataFromLocalPlatformModules() {
+			BuildResult result = runner.withArgument("-P" + MultiplatformPublishingPlugin.LOCAL_PLATFORM_MODULES_PROPERTY + "=true").withTasks("publish").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+	}
+
+	@Nested
+	class GradleInternalsCrossVersionTests {
+		// Publishes through each internal publishing API used by the plugin, see PublicationInternals
+		@ParameterizedTest(name = "Gradle {0}")
+		@ValueSource(strings = {"8.5", "8.11.1", "9.1.0"})
+		void canPublishWithGradleVersion(String gradleVersion) {
+			GradleRunner runner = IvyFunctionalTests.this.runner.withGradleVersion(gradleVersion).withArgument("-P" + MultiplatformPublishingPlugin.INCREMENTAL_PROPERTY + "=true");
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat("platform publications are aliases", result.getOutput(), not(containsString("Multiple publications with coordinates")));
+			assertThat(repository, has(publishedModule("com.example:test-project_debug:1.0")));
+			assertThat("staged module metadata is published", repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+
+			result = runner.withTasks("publish").build();
+			assertThat("publishable artifacts are already published", result.task(":publishCppDebugPublicationToIvyRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+	}
 }
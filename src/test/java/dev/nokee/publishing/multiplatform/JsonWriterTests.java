@@ -0,0 +1,42 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonWriterTests {
+	boolean closed = false;
+	StringWriter out = new StringWriter() {
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	};
+
+	@Test
+	void writesDocumentWithTrailingNewline() throws IOException {
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("formatVersion", "1.1");
+		try (JsonWriter writer = new JsonWriter(out)) {
+			writer.value((Object) document);
+		}
+		assertThat(out.toString(), equalTo("{\n  \"formatVersion\": \"1.1\"\n}\n"));
+		assertThat(closed, is(true));
+	}
+
+	@Test
+	void closesUnderlyingWriterOnIncompleteDocument() throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.beginObject();
+		assertThrows(IOException.class, writer::close);
+		assertThat(closed, is(true));
+	}
+}
@@ -12,7 +12,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static dev.gradleplugins.buildscript.syntax.Syntax.groovyDsl;
@@ -143,6 +147,16 @@ class MavenFunctionalTests {
 			return runner;
 		}
 
+		@Test
+		void canPublishPlatformPublicationsConcurrently() throws IOException {
+			// The configuration cache lets tasks of the same project run in parallel
+			runner.withArgument("--configuration-cache").withArgument("--parallel").withTasks("publish").build();
+			assertThat(Files.readString(Path.of(repository.module("com.example", "test-project_debug").getPom().getUri())), containsString("<artifactId>test-project_debug</artifactId>"));
+			assertThat(Files.readString(Path.of(repository.module("com.example", "test-project_release").getPom().getUri())), containsString("<artifactId>test-project_release</artifactId>"));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+
 		@Test
 		void skipsPublishBridgePublicationToMavenRepositoryOnMissingPublishedPlatformPublications() {
 			BuildResult result = runner.withArgument("-x").withArgument(":publishCppDebugPublicationToMavenRepository").withTasks(":publishAllPublicationsToMavenRepository").build();
@@ -216,4 +230,321 @@ class MavenFunctionalTests {
 				has(moduleMetadata(with(remoteVariants(allOf(hasSize(2), contains(named("debugLinkElements"), named("releaseLinkElements"))))))));
 		}
 	}
+
+	@Nested
+	class PlatformModuleMetadataTests {
+		@Test
+		void generatesPlatformModuleMetadataWithPlatformCoordinate() throws IOException {
+			runner.withTasks("publish").build();
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cppDebug/module.json")), containsString("\"module\": \"test-project_debug\","));
+		}
+
+		@Test
+		void doesNotCreateAnyPlaceholderConfiguration() {
+			BuildResult result = runner.withTasks("outgoingVariants").build();
+			assertThat(result.getOutput(), not(containsString("canaryElements")));
+		}
+	}
+
+	@Nested
+	class BridgeModuleMetadataTests {
+		@Test
+		void doesNotModifyBridgeModuleMetadataGeneratedByGradle() throws IOException {
+			runner.withTasks("publish").build();
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cpp/module.json")), not(containsString("available-at")));
+			assertThat(Files.exists(testDirectory.resolve("build/publications/cpp/module.json.orig")), is(false));
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cpp/bridge-module.json")), containsString("available-at"));
+		}
+
+		@Test
+		void canPublishBridgePublicationToMultipleRepositories() {
+			runner = runner.configure(m2);
+			BuildResult result = runner.withTasks("publish", "publishToMavenLocal").build();
+			assertThat(result.task(":stageMetadataFileForCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(result.task(":stageMetadataFileForCppPublicationToMavenLocal").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(Files.exists(testDirectory.resolve("build/publications/cpp/mavenRepository/bridge-module.json")), is(true));
+			assertThat(Files.exists(testDirectory.resolve("build/publications/cpp/mavenLocal/bridge-module.json")), is(true));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+			assertThat(m2.mavenRepo().module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+
+		@Test
+		void keepsStagedBridgeModuleMetadataOfEachRepository() throws IOException {
+			build.getBuildFile().append(groovyDsl("""
+				publishing.repositories.maven { name = 'other'; url = 'other-repo' }
+				tasks.named('publishCppReleasePublicationToOtherRepository') { enabled = false }
+			"""));
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(result.task(":stageMetadataFileForCppPublicationToOtherRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cpp/mavenRepository/bridge-module.json")), containsString("test-project_release"));
+		}
+
+		@Test
+		void doesNotLoadStagedBridgeModuleMetadataFromBuildCache() throws IOException {
+			runner.withArgument("--build-cache").withTasks("publish").build();
+			Files.delete(testDirectory.resolve("build/publications/cpp/bridge-module.json"));
+
+			BuildResult result = runner.withArgument("--build-cache").withTasks("publish").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.SUCCESS));
+		}
+	}
+
+	@Nested
+	class LazyModeTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.LAZY_PROPERTY + "=true");
+		}
+
+		@Test
+		void doesNotRealizeMultiplatformPublicationsWhenNotPublishing() {
+			BuildResult result = runner.withTasks("tasks", "--all").build();
+			assertThat(result.getOutput(), not(containsString("publishCppPublicationToMavenRepository")));
+			assertThat(result.getOutput(), not(containsString("generateMetadataFileForCppDebugPublication")));
+		}
+
+		@Test
+		void canStageBridgeModuleMetadata() {
+			BuildResult result = runner.withTasks("stageMetadataFileForCppPublication").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.SUCCESS));
+		}
+
+		@Test
+		void canPublishWhenPublishing() {
+			runner.withTasks("publish").build();
+			assertThat(repository, has(publishedModule("com.example:test-project:1.0")));
+			assertThat(repository, has(publishedModule("com.example:test-project_debug:1.0")));
+			assertThat(repository, has(publishedModule("com.example:test-project_release:1.0")));
+		}
+	}
+
+	@Nested
+	class StagedUploadTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.STAGED_UPLOAD_PROPERTY + "=true");
+		}
+
+		@Test
+		void canPublishMultiplatformPublicationsUsingStagedUpload() {
+			BuildResult result = runner.withTasks("publishMultiplatform").build();
+			assertThat(result.task(":publishCppMultiplatformPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(repository, has(publishedModule("com.example:test-project:1.0")));
+			assertThat(repository, has(publishedModule("com.example:test-project_debug:1.0")));
+			assertThat(repository, has(publishedModule("com.example:test-project_release:1.0")));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+
+		@Test
+		void keepsPreviouslyPublishedVersions() throws IOException {
+			runner.withTasks("publishMultiplatform").build();
+			build.getBuildFile().append(groovyDsl("""
+				publishing.publications.cpp.version = '2.0'
+			"""));
+			runner.withTasks("publishMultiplatform").build();
+			String metadata = Files.readString(testDirectory.resolve("repo/com/example/test-project/maven-metadata.xml"));
+			assertThat(metadata, allOf(containsString("<version>1.0</version>"), containsString("<version>2.0</version>")));
+		}
+
+		@Test
+		void keepsSnapshotHistoryOfSnapshotVersions() throws IOException {
+			build.getBuildFile().append(groovyDsl("""
+				publishing.publications.cpp.version = '1.0-SNAPSHOT'
+			"""));
+			runner.withTasks("publishMultiplatform").build();
+			BuildResult result = runner.withTasks("publishMultiplatform").build();
+			assertThat(result.task(":publishCppMultiplatformPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(result.task(":publishCppDebugPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(Files.readString(testDirectory.resolve("repo/com/example/test-project/1.0-SNAPSHOT/maven-metadata.xml")), containsString("<buildNumber>2</buildNumber>"));
+			assertThat(Files.readString(testDirectory.resolve("repo/com/example/test-project_debug/1.0-SNAPSHOT/maven-metadata.xml")), containsString("<buildNumber>2</buildNumber>"));
+			assertThat(Files.exists(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project_debug")), is(false));
+		}
+
+		@Test
+		void doesNotUploadFilesStagedByPreviousBuilds() throws IOException {
+			Files.createDirectories(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project_debug/1.0"));
+			Files.writeString(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project_debug/1.0/test-project_debug-1.0-stale.so"), "stale");
+			Files.createDirectories(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project/0.9"));
+			runner.withTasks("publishMultiplatform").build();
+			assertThat(Files.exists(testDirectory.resolve("repo/com/example/test-project_debug/1.0/test-project_debug-1.0-stale.so")), is(false));
+			assertThat(Files.exists(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project/0.9")), is(false));
+			assertThat(repository, has(publishedModule("com.example:test-project_debug:1.0")));
+		}
+
+		@Test
+		void alwaysStagesPublicationsInIncrementalMode() throws IOException {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.INCREMENTAL_PROPERTY + "=true");
+			runner.withTasks("publishMultiplatform").build();
+			Files.writeString(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project_debug/1.0/test-project_debug-1.0-stale.so"), "stale");
+
+			BuildResult result = runner.withTasks("publishMultiplatform").build();
+			assertThat(result.task(":publishCppDebugPublicationToMultiplatformMavenStagingRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(Files.exists(testDirectory.resolve("build/multiplatform-staging/maven/com/example/test-project_debug/1.0/test-project_debug-1.0-stale.so")), is(false));
+		}
+
+		@Test
+		void failsUploadWithUnsupportedRepositoryCredentials() {
+			build.getBuildFile().append(groovyDsl("""
+				publishing.repositories.getByName('maven') {
+					credentials(HttpHeaderCredentials) {
+						name = 'Private-Token'
+						value = 'secret'
+					}
+					authentication {
+						header(HttpHeaderAuthentication)
+					}
+				}
+			"""));
+			BuildResult result = runner.withTasks("publishCppMultiplatformPublicationToMavenRepository").buildAndFail();
+			assertThat(result.getOutput(), containsString("Cannot use the authentication 'header' of repository 'maven' for multiplatform publishing, only username and password credentials with basic authentication are supported."));
+			assertThat(repository, not(has(publishedModule("com.example:test-project:1.0"))));
+		}
+	}
+
+	@Nested
+	class IncrementalPublishTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.INCREMENTAL_PROPERTY + "=true");
+		}
+
+		@Test
+		void skipsPlatformPublicationsAlreadyPublishedIdentically() {
+			runner.withTasks("publish").build();
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppDebugPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(result.task(":publishCppReleasePublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+
+		@Test
+		void skipsBridgePublicationAlreadyPublishedIdentically() throws IOException {
+			runner.withTasks("publish").build();
+			String bridgeMetadata = Files.readString(testDirectory.resolve("build/publications/cpp/bridge-module.json"));
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(Files.readString(testDirectory.resolve("build/publications/cpp/bridge-module.json")), equalTo(bridgeMetadata));
+		}
+
+		@Test
+		void publishesBridgePublicationWithChangedMetadata() {
+			runner.withTasks("publish").build();
+			build.getBuildFile().append(groovyDsl("""
+				publishing.publications.cpp.pom.description = 'changed'
+			"""));
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+		}
+
+		@Test
+		void publishesPlatformPublicationsWithChangedFiles() throws IOException {
+			runner.withTasks("publish").build();
+			Files.writeString(testDirectory.resolve("debug/libfoo.so"), "rebuilt");
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppDebugPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(result.task(":publishCppReleasePublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+	}
+
+	@Nested
+	class PlatformManifestTests {
+		GradleRunner runnerWithoutPlatformManifests;
+
+		@BeforeEach
+		void setup() {
+			runnerWithoutPlatformManifests = runner;
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.PLATFORM_MANIFESTS_PROPERTY + "=build/platform-manifests");
+		}
+
+		@Test
+		void writesPlatformManifestsWhenPublishingPlatformPublications() throws IOException {
+			runner.withTasks("publishCppDebugPublicationToMavenRepository").build();
+			String manifest = Files.readString(testDirectory.resolve("build/platform-manifests/com.example/test-project_debug-1.0.json"));
+			assertThat(manifest, allOf(containsString("\"module\": \"test-project_debug\""), containsString("\"name\": \"debugLinkElements\"")));
+			assertThat(manifest, not(containsString("\"files\"")));
+		}
+
+		@Test
+		void doesNotWritePlatformManifestsOfUnpublishedPlatformPublications() {
+			build.getBuildFile().append(groovyDsl("""
+				tasks.named('publishCppDebugPublicationToMavenRepository') { onlyIf { false } }
+			"""));
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":publishCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+			assertThat(Files.exists(testDirectory.resolve("build/platform-manifests/com.example/test-project_debug-1.0.json")), is(false));
+			assertThat(Files.exists(testDirectory.resolve("build/platform-manifests/com.example/test-project_release-1.0.json")), is(true));
+		}
+
+		@Test
+		void doesNotWritePlatformManifestsWhenNotUsed() {
+			runnerWithoutPlatformManifests.withTasks("publish").build();
+			assertThat(Files.exists(testDirectory.resolve("build/platform-manifests")), is(false));
+		}
+
+		@Test
+		void canPublishBridgePublicationFromPlatformManifestsWithoutFetchingPlatformModules() throws IOException {
+			runner.withTasks("publishCppDebugPublicationToMavenRepository", "publishCppReleasePublicationToMavenRepository").build();
+			// the fan-in build only sees the collected manifests
+			Files.delete(testDirectory.resolve("repo/com/example/test-project_debug/1.0/test-project_debug-1.0.module"));
+			Files.delete(testDirectory.resolve("repo/com/example/test-project_release/1.0/test-project_release-1.0.module"));
+
+			BuildResult result = runner.withTasks("publishCppPublicationToMavenRepository").build();
+			assertThat(result.task(":publishCppPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+	}
+
+	@Nested
+	class LocalPlatformModulesTests {
+		@BeforeEach
+		void setup() {
+			runner = runner.withArgument("-P" + MultiplatformPublishingPlugin.LOCAL_PLATFORM_MODULES_PROPERTY + "=true");
+		}
+
+		@Test
+		void generatesBridgeMetadataFromLocalPlatformModules() throws IOException {
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.SUCCESS));
+			assertThat(repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+		}
+
+		@Test
+		void doesNotRegenerateBridgeMetadataWhenPlatformModulesAreUnchanged() throws IOException {
+			runner.withTasks("publish").build();
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.UP_TO_DATE));
+		}
+
+		@Test
+		void loadsBridgeModuleMetadataFromBuildCache() throws IOException {
+			runner.withArgument("--build-cache").withTasks("publish").build();
+			Files.delete(testDirectory.resolve("build/publications/cpp/bridge-module.json"));
+
+			BuildResult result = runner.withArgument("--build-cache").withTasks("publish").build();
+			assertThat(result.task(":stageMetadataFileForCppPublication").getOutcome(), is(TaskOutcome.FROM_CACHE));
+		}
+	}
+
+	@Nested
+	class GradleInternalsCrossVersionTests {
+		// Publishes through each internal publishing API used by the plugin, see PublicationInternals
+		@ParameterizedTest(name = "Gradle {0}")
+		@ValueSource(strings = {"8.5", "8.11.1", "9.1.0"})
+		void canPublishWithGradleVersion(String gradleVersion) {
+			GradleRunner runner = MavenFunctionalTests.this.runner.withGradleVersion(gradleVersion).withArgument("-P" + MultiplatformPublishingPlugin.INCREMENTAL_PROPERTY + "=true");
+			BuildResult result = runner.withTasks("publish").build();
+			assertThat("platform publications are aliases", result.getOutput(), not(containsString("Multiple publications with coordinates")));
+			assertThat(repository, has(publishedModule("com.example:test-project_debug:1.0")));
+			assertThat("staged module metadata is published", repository.module("com.example", "test-project"),
+				has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+
+			result = runner.withTasks("publish").build();
+			assertThat("publishable artifacts are already published", result.task(":publishCppDebugPublicationToMavenRepository").getOutcome(), is(TaskOutcome.SKIPPED));
+		}
+	}
 }
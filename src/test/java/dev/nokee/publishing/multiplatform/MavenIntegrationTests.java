@@ -15,6 +15,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static dev.nokee.commons.hamcrest.gradle.NamedMatcher.named;
 import static dev.nokee.commons.hamcrest.gradle.ThrowableMatchers.message;
@@ -69,7 +71,7 @@ class MavenIntegrationTests {
 		subject.bridgePublication(it -> it.setArtifactId("my-app"));
 		MavenPublication platformPublication = subject.getPlatformPublications().register("debug").get();
 		((ViewInternal) subject.getPlatformPublications()).finalizeNow();
-		assertThat("required by Gradle when multiple publications", platformPublication.getArtifactId(), equalTo("my-app"));
+		assertThat("published with its platform coordinate", platformPublication.getArtifactId(), equalTo("my-app_debug"));
 		assertThat(((MultiplatformPublicationInternal) subject).moduleNameOf(platformPublication), equalTo("my-app_debug"));
 	}
 
@@ -79,7 +81,7 @@ class MavenIntegrationTests {
 		MavenPublication platformPublication = subject.getPlatformPublications().register("debug").get();
 		platformPublication.setArtifactId("myAppDebug");
 		((ViewInternal) subject.getPlatformPublications()).finalizeNow();
-		assertThat("required by Gradle when multiple publications", platformPublication.getArtifactId(), equalTo("my-app"));
+		assertThat("published with its platform coordinate", platformPublication.getArtifactId(), equalTo("myAppDebug"));
 		assertThat(((MultiplatformPublicationInternal) subject).moduleNameOf(platformPublication), equalTo("myAppDebug"));
 	}
 
@@ -120,4 +122,21 @@ class MavenIntegrationTests {
 		subject.getPlatformPublications().register("release", it -> it.setVersion("4.2"));
 		assertThat(() -> subject.getPlatformPublications().finalizeNow(), throwsException(message("must not configure platform's version")));
 	}
+
+	@Test
+	void configuresKnownPlatformPublicationsAfterFinalization() {
+		subject.getPlatformPublications().register("debug");
+		subject.getPlatformPublications().finalizeNow();
+		List<String> configuredPublications = new ArrayList<>();
+		subject.getPlatformPublications().configureEach(it -> configuredPublications.add(it.getName()));
+		subject.getPlatformPublications().getElements().get(); // realize
+		assertThat(configuredPublications, contains("testDebug"));
+	}
+
+	@Test
+	void throwsExceptionWhenRegisteringPlatformPublicationsAfterFinalization() {
+		subject.getPlatformPublications().register("debug");
+		subject.getPlatformPublications().finalizeNow();
+		assertThat(() -> subject.getPlatformPublications().register("release"), throwsException(message("Cannot register element 'testRelease' as the view is already finalized.")));
+	}
 }
@@ -0,0 +1,76 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MavenLocalRepositoryLocatorTests {
+	@TempDir Path testDirectory;
+	Map<String, String> systemProperties = new HashMap<>();
+	Map<String, String> environmentVariables = new HashMap<>();
+	MavenLocalRepositoryLocator subject = new MavenLocalRepositoryLocator(systemProperties::get, environmentVariables::get);
+	Path userHome;
+	Path m2Home;
+
+	@BeforeEach
+	void setup() throws IOException {
+		userHome = Files.createDirectories(testDirectory.resolve("user-home"));
+		m2Home = Files.createDirectories(testDirectory.resolve("m2-home"));
+		systemProperties.put("user.home", userHome.toString());
+	}
+
+	@Test
+	void defaultsToUserM2Repository() {
+		assertThat(subject.locate(), equalTo(userHome.resolve(".m2/repository").toFile()));
+	}
+
+	@Test
+	void usesMavenRepoLocalSystemProperty() throws IOException {
+		writeSettings(userHome.resolve(".m2/settings.xml"), testDirectory.resolve("user-repo").toString());
+		systemProperties.put("maven.repo.local", testDirectory.resolve("system-repo").toString());
+		assertThat(subject.locate(), equalTo(testDirectory.resolve("system-repo").toFile()));
+	}
+
+	@Test
+	void usesUserSettingsLocalRepository() throws IOException {
+		writeSettings(userHome.resolve(".m2/settings.xml"), testDirectory.resolve("user-repo").toString());
+		writeSettings(m2Home.resolve("conf/settings.xml"), testDirectory.resolve("global-repo").toString());
+		environmentVariables.put("M2_HOME", m2Home.toString());
+		assertThat(subject.locate(), equalTo(testDirectory.resolve("user-repo").toFile()));
+	}
+
+	@Test
+	void usesGlobalSettingsLocalRepository() throws IOException {
+		writeSettings(m2Home.resolve("conf/settings.xml"), testDirectory.resolve("global-repo").toString());
+		environmentVariables.put("M2_HOME", m2Home.toString());
+		assertThat(subject.locate(), equalTo(testDirectory.resolve("global-repo").toFile()));
+	}
+
+	@Test
+	void resolvesPlaceholders() throws IOException {
+		writeSettings(userHome.resolve(".m2/settings.xml"), "${user.home}/${env.REPO_NAME}");
+		environmentVariables.put("REPO_NAME", "custom-repo");
+		assertThat(subject.locate(), equalTo(userHome.resolve("custom-repo").toFile()));
+	}
+
+	@Test
+	void returnsDirectoryUrlForMissingRepository() {
+		assertThat(subject.locateUrl().toString(), endsWith("/.m2/repository/"));
+	}
+
+	private static void writeSettings(Path settingsFile, String localRepository) throws IOException {
+		Files.createDirectories(settingsFile.getParent());
+		Files.writeString(settingsFile, "<settings xmlns=\"http://maven.apache.org/SETTINGS/1.0.0\">\n"
+			+ "    <localRepository>" + localRepository + "</localRepository>\n"
+			+ "</settings>");
+	}
+}
@@ -0,0 +1,38 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MavenMetadataMergerTests {
+	static String metadata(String latest, String... versions) {
+		StringBuilder result = new StringBuilder();
+		result.append("<metadata><groupId>com.example</groupId><artifactId>my-lib</artifactId><versioning>");
+		result.append("<latest>").append(latest).append("</latest><release>").append(latest).append("</release><versions>");
+		for (String version : versions) {
+			result.append("<version>").append(version).append("</version>");
+		}
+		result.append("</versions><lastUpdated>20240101000000</lastUpdated></versioning></metadata>");
+		return result.toString();
+	}
+
+	static String merge(String remote, String staged) {
+		return new String(MavenMetadataMerger.merge(remote.getBytes(StandardCharsets.UTF_8), staged.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void keepsRemoteVersions() {
+		String result = merge(metadata("1.1", "1.0", "1.1"), metadata("2.0", "2.0"));
+		assertThat(result, stringContainsInOrder("<version>1.0</version>", "<version>1.1</version>", "<version>2.0</version>"));
+		assertThat(result, containsString("<latest>2.0</latest>"));
+	}
+
+	@Test
+	void doesNotDuplicateRepublishedVersions() {
+		String result = merge(metadata("1.0", "1.0"), metadata("1.0", "1.0"));
+		assertThat(result.split("<version>1.0</version>", -1).length, equalTo(2));
+	}
+}
@@ -0,0 +1,50 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.Project;
+import org.gradle.api.publish.Publication;
+import org.gradle.api.publish.PublicationContainer;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class NamedElementsDispatcherTests {
+	@TempDir Path testDirectory;
+	PublicationContainer publications;
+	NamedElementsDispatcher<Publication> subject;
+	List<String> configuredElements = new ArrayList<>();
+
+	@BeforeEach
+	void setup() {
+		Project project = ProjectBuilder.builder().withProjectDir(testDirectory.toFile()).build();
+		project.getPluginManager().apply("maven-publish");
+		publications = project.getExtensions().getByType(PublishingExtension.class).getPublications();
+		subject = NamedElementsDispatcher.of(publications, Publication::getName);
+	}
+
+	@Test
+	void configuresElementOfNameOnly() {
+		subject.configure("cppDebug", it -> configuredElements.add("first " + it.getName()));
+		subject.configure("cppDebug", it -> configuredElements.add("second " + it.getName()));
+		publications.register("cpp", MavenPublication.class).get();
+		publications.register("cppDebug", MavenPublication.class).get();
+		publications.register("cppRelease", MavenPublication.class).get();
+		assertThat(configuredElements, contains("first cppDebug", "second cppDebug"));
+	}
+
+	@Test
+	void configuresAlreadyRealizedElements() {
+		publications.register("cppDebug", MavenPublication.class).get();
+		subject.configure("cppDebug", it -> configuredElements.add(it.getName()));
+		assertThat(configuredElements, contains("cppDebug"));
+	}
+}
@@ -0,0 +1,300 @@
+package dev.nokee.publishing.multiplatform;
+
+import com.sun.net.httpserver.HttpServer;
+import groovy.json.JsonSlurper;
+import org.gradle.api.resources.MissingResourceException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlatformModulesServiceTests {
+	List<URI> requests = Collections.synchronizedList(new ArrayList<>());
+	Function<URI, String> loader = this::found;
+	PlatformModulesService subject = new PlatformModulesService() {
+		@Override
+		public Parameters getParameters() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		String load(URI location, String authorization) {
+			return loader.apply(location);
+		}
+
+		@Override
+		int maxConcurrentRequests() {
+			return 2;
+		}
+	};
+
+	@Test
+	void fetchesFoundModuleOnlyOnce() {
+		URI location = URI.create("https://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		assertThat(subject.fetch(location, null, null), equalTo("content of " + location));
+		assertThat(subject.fetch(location, null, null), equalTo("content of " + location));
+		assertThat(requests, contains(location));
+	}
+
+	@Test
+	void fetchesMissingModuleAgain() {
+		URI location = URI.create("https://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		loader = this::missing;
+		assertThrows(MissingResourceException.class, () -> subject.fetch(location, null, null));
+		loader = this::found;
+		assertThat(subject.fetch(location, null, null), equalTo("content of " + location));
+		assertThat(requests, contains(location, location));
+	}
+
+	@Test
+	void cachesModulesByLocation() {
+		URI mavenLocation = URI.create("https://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		URI ivyLocation = URI.create("https://ivy.example.com/com.example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		assertThat(subject.fetch(mavenLocation, null, null), equalTo("content of " + mavenLocation));
+		assertThat(subject.fetch(ivyLocation, null, null), equalTo("content of " + ivyLocation));
+		assertThat(requests, contains(mavenLocation, ivyLocation));
+	}
+
+	@Test
+	void cachesModulesByCredentials() {
+		URI location = URI.create("https://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		assertThat(subject.fetch(location, "user", "secret"), equalTo("content of " + location));
+		assertThat(subject.fetch(location, "user", "secret"), equalTo("content of " + location));
+		assertThat(subject.fetch(location, "other", "secret"), equalTo("content of " + location));
+		assertThat(subject.fetch(location, null, null), equalTo("content of " + location));
+		assertThat(requests, contains(location, location, location));
+	}
+
+	@Test
+	void probesLocalFilesWithoutFetching(@TempDir Path testDirectory) throws IOException {
+		Path moduleFile = Files.writeString(testDirectory.resolve("my-lib_debug-1.0.module"), "{}");
+		assertThat(subject.exists(moduleFile.toUri(), null, null), is(true));
+		assertThat(subject.exists(testDirectory.resolve("my-lib_release-1.0.module").toUri(), null, null), is(false));
+		assertThat(requests, emptyIterable());
+	}
+
+	@Test
+	void probesHttpLocationsWithHeadRequests() throws IOException {
+		List<String> methods = new ArrayList<>();
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			methods.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+			if (exchange.getRequestURI().getPath().endsWith("my-lib_debug-1.0.module")) {
+				exchange.sendResponseHeaders(200, -1);
+			} else {
+				exchange.sendResponseHeaders(404, -1);
+			}
+			exchange.close();
+		});
+		server.start();
+		try {
+			URI repository = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+			assertThat(subject.exists(repository.resolve("my-lib_debug-1.0.module"), null, null), is(true));
+			assertThat(subject.exists(repository.resolve("my-lib_release-1.0.module"), null, null), is(false));
+			assertThat(methods, contains("HEAD /my-lib_debug-1.0.module", "HEAD /my-lib_release-1.0.module"));
+			assertThat(requests, emptyIterable());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void fallsBackToFetchWhenHeadRequestsAreNotAllowed() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			exchange.sendResponseHeaders(405, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			URI location = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/my-lib_debug-1.0.module");
+			assertThat(subject.exists(location, null, null), is(true));
+			assertThat(subject.fetch(location, null, null), equalTo("content of " + location));
+			assertThat(requests, contains(location));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void fallsBackToFetchForUnknownTransports() {
+		URI location = URI.create("sftp://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		loader = this::missing;
+		assertThat(subject.exists(location, null, null), is(false));
+		assertThat(requests, contains(location));
+	}
+
+	@Test
+	void filtersConcurrentlyWithinConfiguredBound() throws Exception {
+		AtomicInteger activeCount = new AtomicInteger();
+		AtomicInteger maxActiveCount = new AtomicInteger();
+		CyclicBarrier barrier = new CyclicBarrier(2); // fails on timeout if elements are not evaluated concurrently
+		List<Integer> elements = List.of(1, 2, 3, 4, 5, 6);
+		try {
+			List<Integer> result = subject.filter(elements, it -> {
+				maxActiveCount.accumulateAndGet(activeCount.incrementAndGet(), Math::max);
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+					return it % 2 == 0;
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				} finally {
+					activeCount.decrementAndGet();
+				}
+			});
+			assertThat(result, contains(2, 4, 6));
+			assertThat(maxActiveCount.get(), equalTo(2));
+		} finally {
+			subject.close();
+		}
+	}
+
+	@Test
+	void reportsAllMissingModulesInOrder() {
+		List<URI> locations = new ArrayList<>();
+		for (String variant : List.of("debug", "release", "debugStatic", "releaseStatic")) {
+			locations.add(URI.create("sftp://repo.example.com/com/example/my-lib_" + variant + "/1.0/my-lib_" + variant + "-1.0.module"));
+		}
+		loader = location -> location.getPath().contains("release") ? missing(location) : found(location);
+		assertThat(subject.filter(locations, it -> !subject.exists(it, null, null)), contains(locations.get(1), locations.get(3)));
+		assertThat(requests, containsInAnyOrder(locations.toArray()));
+	}
+
+	@Test
+	void parsesMaxConcurrentRequests() {
+		assertThat(PlatformModulesService.parseMaxConcurrentRequests("4"), equalTo(4));
+		assertThrows(IllegalArgumentException.class, () -> PlatformModulesService.parseMaxConcurrentRequests("0"));
+		assertThrows(IllegalArgumentException.class, () -> PlatformModulesService.parseMaxConcurrentRequests("-1"));
+		assertThrows(IllegalArgumentException.class, () -> PlatformModulesService.parseMaxConcurrentRequests("many"));
+	}
+
+	@Test
+	void recordsProbesAndFetchesStatistics(@TempDir Path testDirectory) throws IOException {
+		Path moduleFile = Files.writeString(testDirectory.resolve("my-lib_debug-1.0.module"), "{}");
+		URI location = URI.create("https://repo.example.com/com/example/my-lib_debug/1.0/my-lib_debug-1.0.module");
+		assertThat(subject.getStatistics().isEmpty(), is(true));
+		subject.exists(moduleFile.toUri(), null, null);
+		subject.fetch(location, null, null);
+		subject.fetch(location, null, null);
+
+		Path reportFile = testDirectory.resolve("reports/publishing-statistics.json");
+		subject.getStatistics().writeTo(reportFile);
+		Map<?, ?> report = (Map<?, ?>) new JsonSlurper().parse(reportFile.toFile());
+		assertThat(((Map<?, ?>) report.get("probes")).get("count"), equalTo(1));
+		assertThat(((Map<?, ?>) report.get("fetches")).get("count"), equalTo(1));
+		assertThat(((Map<?, ?>) report.get("fetches")).get("bytes"), equalTo(("content of " + location).length()));
+		assertThat(((Map<?, ?>) report.get("merges")).get("count"), equalTo(0));
+		assertThat(((Map<?, ?>) report.get("writes")).get("count"), equalTo(0));
+	}
+
+	@Test
+	void loadsModulesOverHttp() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			if (exchange.getRequestURI().getPath().endsWith("my-lib_debug-1.0.module")) {
+				byte[] content = "{\"formatVersion\": \"1.1\"}".getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(200, content.length);
+				try (OutputStream outStream = exchange.getResponseBody()) {
+					outStream.write(content);
+				}
+			} else {
+				exchange.sendResponseHeaders(404, -1);
+			}
+			exchange.close();
+		});
+		server.start();
+		try {
+			PlatformModulesService service = new PlatformModulesService() {
+				@Override
+				public Parameters getParameters() {
+					throw new UnsupportedOperationException();
+				}
+			};
+			URI repository = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+			assertThat(service.fetch(repository.resolve("my-lib_debug-1.0.module"), null, null), equalTo("{\"formatVersion\": \"1.1\"}"));
+			assertThrows(MissingResourceException.class, () -> service.fetch(repository.resolve("my-lib_release-1.0.module"), null, null));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void authenticatesRequestsToRepositoriesWithCredentials() throws IOException {
+		List<String> methods = new ArrayList<>();
+		String authorization = "Basic " + Base64.getEncoder().encodeToString("user:secret".getBytes(StandardCharsets.UTF_8));
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			methods.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+			if (!authorization.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+				exchange.sendResponseHeaders(401, -1);
+			} else if (exchange.getRequestURI().getPath().endsWith("my-lib_debug-1.0.module")) {
+				byte[] content = "{}".getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(200, exchange.getRequestMethod().equals("HEAD") ? -1 : content.length);
+				try (OutputStream outStream = exchange.getResponseBody()) {
+					outStream.write(exchange.getRequestMethod().equals("HEAD") ? new byte[0] : content);
+				}
+			} else {
+				exchange.sendResponseHeaders(404, -1);
+			}
+			exchange.close();
+		});
+		server.start();
+		try {
+			PlatformModulesService service = new PlatformModulesService() {
+				@Override
+				public Parameters getParameters() {
+					throw new UnsupportedOperationException();
+				}
+			};
+			URI repository = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+			assertThat(service.exists(repository.resolve("my-lib_debug-1.0.module"), "user", "secret"), is(true));
+			assertThat(service.exists(repository.resolve("my-lib_release-1.0.module"), "user", "secret"), is(false));
+			assertThat(service.fetch(repository.resolve("my-lib_debug-1.0.module"), "user", "secret"), equalTo("{}"));
+			assertThat(methods, contains("HEAD /my-lib_debug-1.0.module", "HEAD /my-lib_release-1.0.module", "GET /my-lib_debug-1.0.module"));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void loadsModulesFromFiles(@TempDir Path testDirectory) throws IOException {
+		PlatformModulesService service = new PlatformModulesService() {
+			@Override
+			public Parameters getParameters() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		Path moduleFile = Files.writeString(testDirectory.resolve("my-lib_debug-1.0.module"), "{}");
+		assertThat(service.fetch(moduleFile.toUri(), null, null), equalTo("{}"));
+		assertThrows(MissingResourceException.class, () -> service.fetch(testDirectory.resolve("my-lib_release-1.0.module").toUri(), null, null));
+	}
+
+	private String found(URI location) {
+		requests.add(location);
+		return "content of " + location;
+	}
+
+	private String missing(URI location) {
+		requests.add(location);
+		throw new MissingResourceException(location, "not found");
+	}
+}
@@ -0,0 +1,62 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.publish.Publication;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PublishTasksDispatcherTests {
+	@TempDir Path testDirectory;
+	Project project;
+	PublishTasksDispatcher<Task> subject;
+	Publication cpp;
+	Publication cppDebug;
+	List<String> configuredTasks = new ArrayList<>();
+
+	@BeforeEach
+	void setup() {
+		project = ProjectBuilder.builder().withProjectDir(testDirectory.toFile()).build();
+		project.getPluginManager().apply("maven-publish");
+		PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+		cpp = publishing.getPublications().create("cpp", MavenPublication.class);
+		cppDebug = publishing.getPublications().create("cppDebug", MavenPublication.class);
+		subject = PublishTasksDispatcher.of(project.getTasks());
+	}
+
+	@Test
+	void configuresPublishTasksOfPublicationOnly() {
+		subject.configureEach(cpp, it -> configuredTasks.add(it.getName()));
+		project.getTasks().register("publishCppPublicationToFooRepository").get();
+		project.getTasks().register("publishCppDebugPublicationToFooRepository").get();
+		project.getTasks().named("publishCppPublicationToMavenLocal").get(); // registered by maven-publish
+		project.getTasks().register("publishAllPublicationsToFooRepository").get();
+		project.getTasks().named("generatePomFileForCppPublication").get(); // registered by maven-publish
+		assertThat(configuredTasks, contains("publishCppPublicationToFooRepository", "publishCppPublicationToMavenLocal"));
+	}
+
+	@Test
+	void configuresAlreadyConfiguredTasks() {
+		project.getTasks().register("publishCppDebugPublicationToFooRepository").get();
+		subject.configureEach(cppDebug, it -> configuredTasks.add(it.getName()));
+		assertThat(configuredTasks, contains("publishCppDebugPublicationToFooRepository"));
+	}
+
+	@Test
+	void doesNotRealizeTasks() {
+		project.getTasks().register("publishCppPublicationToFooRepository", it -> configuredTasks.add("realized"));
+		subject.configureEach(cpp, it -> configuredTasks.add(it.getName()));
+		assertThat(configuredTasks, emptyIterable());
+	}
+}
@@ -49,6 +49,25 @@ abstract class PublishToRepositoryTester {
 			has(moduleMetadata(with(component(module(equalTo("test-project_release")))))));
 	}
 
+	@Test
+	void publishesAllModulesWithConfigurationCache() {
+		runner().withArgument("--configuration-cache").withTasks(publishToRepository()).build();
+		assertThat(repo(), has(publishedModule("com.example:test-project:1.0")));
+		assertThat(repo(), has(publishedModule("com.example:test-project_debug:1.0")));
+		assertThat(repo(), has(publishedModule("com.example:test-project_release:1.0")));
+		assertThat(repo().module("com.example", "test-project"),
+			has(moduleMetadata(with(remoteVariants(contains(named("debugLinkElements"), named("releaseLinkElements")))))));
+	}
+
+	@Test
+	void reusesConfigurationCache() {
+		runner().withArgument("--configuration-cache").withTasks(publishToRepository()).build();
+		BuildResult result = runner().withArgument("--configuration-cache").withTasks(publishToRepository()).build();
+		assertThat(result.getOutput(), containsString("Reusing configuration cache."));
+		assertThat(repo().module("com.example", "test-project_debug"),
+			has(moduleMetadata(with(component(module(equalTo("test-project_debug")))))));
+	}
+
 	@Test
 	void publishPlatformPublicationsBeforeBridgePublication() {
 		BuildResult result = runner().withTasks(publishToRepository()).build();
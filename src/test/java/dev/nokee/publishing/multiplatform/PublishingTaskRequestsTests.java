@@ -0,0 +1,41 @@
+package dev.nokee.publishing.multiplatform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static dev.nokee.publishing.multiplatform.PublishingTaskRequests.mayPublish;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class PublishingTaskRequestsTests {
+	@Test
+	void mayPublishForPublishTasks() {
+		assertThat(mayPublish(Collections.singletonList("publish")), is(true));
+		assertThat(mayPublish(Collections.singletonList("publishToMavenLocal")), is(true));
+		assertThat(mayPublish(Collections.singletonList(":lib:publishCppPublicationToMavenRepository")), is(true));
+	}
+
+	@Test
+	void mayPublishForMetadataTasks() {
+		assertThat(mayPublish(Collections.singletonList("generateMetadataFileForCppPublication")), is(true));
+		assertThat(mayPublish(Collections.singletonList("generatePomFileForCppPublication")), is(true));
+		assertThat(mayPublish(Collections.singletonList("generateDescriptorFileForCppDebugPublication")), is(true));
+		assertThat(mayPublish(Collections.singletonList("stageMetadataFileForCppPublication")), is(true));
+		assertThat(mayPublish(Collections.singletonList("sMFFCP")), is(true));
+	}
+
+	@Test
+	void mayPublishForAbbreviatedTasks() {
+		assertThat(mayPublish(Collections.singletonList("pTML")), is(true));
+		assertThat(mayPublish(Collections.singletonList(":lib:pub")), is(true));
+		assertThat(mayPublish(Collections.singletonList("genMFFCP")), is(true));
+	}
+
+	@Test
+	void doesNotPublishForOtherTasks() {
+		assertThat(mayPublish(Arrays.asList("help", "assemble", ":lib:compileJava", "test", "--tests", "*Integration*")), is(false));
+		assertThat(mayPublish(Collections.emptyList()), is(false));
+	}
+}
@@ -0,0 +1,60 @@
+package dev.nokee.publishing.multiplatform;
+
+import com.sun.net.httpserver.HttpServer;
+import org.gradle.api.resources.MissingResourceException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RepositoryTransportTests {
+	@TempDir Path testDirectory;
+
+	@Test
+	void writesFilesToLocalRepositories() throws IOException {
+		RepositoryTransport subject = new RepositoryTransport(testDirectory.resolve("repo").toUri(), null, null);
+		subject.put("com/example/my-lib/1.0/my-lib-1.0.module", Files.writeString(testDirectory.resolve("module.json"), "{}"));
+		subject.put("com/example/my-lib/maven-metadata.xml", "<metadata/>".getBytes(StandardCharsets.UTF_8));
+		assertThat(Files.readString(testDirectory.resolve("repo/com/example/my-lib/1.0/my-lib-1.0.module")), equalTo("{}"));
+		assertThat(new String(subject.get("com/example/my-lib/maven-metadata.xml"), StandardCharsets.UTF_8), equalTo("<metadata/>"));
+		assertThrows(MissingResourceException.class, () -> subject.get("com/example/my-lib/1.0/my-lib-1.0.pom"));
+	}
+
+	@Test
+	void writesFilesToHttpRepositoriesWithBasicAuthentication() throws IOException {
+		List<String> requests = new ArrayList<>();
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + " " + exchange.getRequestHeaders().getFirst("Authorization") + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			exchange.sendResponseHeaders(exchange.getRequestMethod().equals("PUT") ? 201 : 404, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			RepositoryTransport subject = new RepositoryTransport(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/repo"), "user", "secret");
+			subject.put("com/example/my-lib/1.0/my-lib-1.0.module", Files.writeString(testDirectory.resolve("module.json"), "{}"));
+			assertThrows(MissingResourceException.class, () -> subject.get("com/example/my-lib/maven-metadata.xml"));
+			assertThat(requests, contains(
+				"PUT /repo/com/example/my-lib/1.0/my-lib-1.0.module Basic dXNlcjpzZWNyZXQ= {}",
+				"GET /repo/com/example/my-lib/maven-metadata.xml Basic dXNlcjpzZWNyZXQ= "));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void throwsExceptionForUnsupportedTransports() {
+		assertThrows(UnsupportedOperationException.class, () -> new RepositoryTransport(URI.create("sftp://repo.example.com/repo"), null, null));
+	}
+}